@@ -0,0 +1,11 @@
+package br.com.jcpm.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas da aplicação (checkpoints e compactações em segundo plano).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
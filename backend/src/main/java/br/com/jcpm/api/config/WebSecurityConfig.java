@@ -1,10 +1,12 @@
 package br.com.jcpm.api.config;
 
+import br.com.jcpm.api.security.BoundedPasswordEncoder;
 import br.com.jcpm.api.security.JwtAuthenticationEntryPoint;
 import br.com.jcpm.api.security.JwtRequestFilter;
 import br.com.jcpm.api.service.UserService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,7 +18,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -36,9 +37,30 @@ public class WebSecurityConfig {
   private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
   private final JwtRequestFilter jwtRequestFilter;
 
+  @Value("${security.password-hashing.threads:0}")
+  private int passwordHashingThreads;
+
+  @Value("${security.password-hashing.queue-capacity:64}")
+  private int passwordHashingQueueCapacity;
+
+  @Value("${security.password-hashing.max-wait-ms:2000}")
+  private long passwordHashingMaxWaitMs;
+
+  /**
+   * Encoder BCrypt executado em um pool limitado, fora das threads de requisição. Com {@code
+   * threads=0}, o pool usa o número de CPUs disponíveis.
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public BoundedPasswordEncoder passwordEncoder() {
+    int threads =
+        passwordHashingThreads > 0
+            ? passwordHashingThreads
+            : Runtime.getRuntime().availableProcessors();
+    return new BoundedPasswordEncoder(
+        new BCryptPasswordEncoder(),
+        threads,
+        passwordHashingQueueCapacity,
+        passwordHashingMaxWaitMs);
   }
 
   @Bean
@@ -68,6 +90,9 @@ public class WebSecurityConfig {
                     .permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/noticias/**", "/api/users/perfil/**")
                     .permitAll()
+                    .requestMatchers(
+                        HttpMethod.GET, "/api/users/*/followers", "/api/users/*/following")
+                    .permitAll()
                     // Endpoints públicos de engajamento/leitura
                     .requestMatchers(HttpMethod.GET, "/api/news/**")
                     .permitAll()
@@ -1,8 +1,10 @@
 package br.com.jcpm.api.controller;
 
 import br.com.jcpm.api.dto.DashboardStatsDTO;
+import br.com.jcpm.api.dto.LiveTrafficDTO;
 import br.com.jcpm.api.dto.NewsDashboardDTO;
 import br.com.jcpm.api.service.DashboardService;
+import br.com.jcpm.api.service.LiveTrafficService;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
   private final DashboardService dashboardService;
+  private final LiveTrafficService liveTrafficService;
 
   /**
    * Retorna as estatísticas gerais para o dashboard de administradores.
@@ -46,4 +50,21 @@ public class DashboardController {
     NewsDashboardDTO dashboardData = dashboardService.getNewsDashboard(newsId);
     return ResponseEntity.ok(dashboardData);
   }
+
+  /**
+   * Retorna as visualizações por minuto de uma notícia nas últimas horas, sem acesso ao banco.
+   *
+   * @param newsId O ID da notícia.
+   * @param minutes O número de minutos, terminando no minuto atual (máximo 1440).
+   * @return A série por minuto, ou 404 se a notícia não existir.
+   */
+  @GetMapping("/news/{newsId}/live")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('JOURNALIST')")
+  public ResponseEntity<LiveTrafficDTO> getLiveTraffic(
+      @PathVariable UUID newsId, @RequestParam(defaultValue = "60") int minutes) {
+    return liveTrafficService
+        .getViewsPerMinute(newsId, minutes)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
 }
\ No newline at end of file
@@ -1,14 +1,20 @@
 package br.com.jcpm.api.controller;
 
 import br.com.jcpm.api.dto.CommentDTO;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.EngagementStatsDTO;
+import br.com.jcpm.api.exception.ResourceNotFoundException;
 import br.com.jcpm.api.service.EngagementService;
+import br.com.jcpm.api.service.EngagementStreamService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,29 +23,41 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Controlador para gerenciar o engajamento do usuário (comentários, curtidas).
  */
 @RestController
-@RequestMapping("/api/news/{newsId}")
+@RequestMapping("/api/news")
 @RequiredArgsConstructor
 public class EngagementController {
 
   private final EngagementService engagementService;
+  private final EngagementStreamService engagementStreamService;
 
   /**
    * Registra uma visualização para uma notícia.
    *
    * @param newsId O ID da notícia.
    * @param request O objeto HttpServletRequest para obter informações do cliente.
-   * @return Uma resposta vazia com status 204.
+   * @return Uma resposta vazia com status 204, 404 se a notícia não existir ou 503 se a fila de
+   *     ingestão estiver cheia.
    */
-  @PostMapping("/view")
+  @PostMapping("/{newsId}/view")
   public ResponseEntity<Void> trackView(@PathVariable UUID newsId, HttpServletRequest request) {
-    engagementService.trackView(newsId, request);
-    return ResponseEntity.noContent().build();
+    try {
+      if (!engagementService.trackView(newsId, request)) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .build();
+      }
+      return ResponseEntity.noContent().build();
+    } catch (ResourceNotFoundException e) {
+      return ResponseEntity.notFound().build();
+    }
   }
 
   /**
@@ -49,7 +67,7 @@ public class EngagementController {
    * @param commentDTO O DTO contendo o texto do comentário.
    * @return O comentário criado.
    */
-  @PostMapping("/comments")
+  @PostMapping("/{newsId}/comments")
   @PreAuthorize("isAuthenticated()")
   public ResponseEntity<CommentDTO> addComment(
       @PathVariable UUID newsId, @Valid @RequestBody CommentDTO commentDTO) {
@@ -58,15 +76,19 @@ public class EngagementController {
   }
 
   /**
-   * Retorna todos os comentários de uma notícia.
+   * Retorna uma página dos comentários de uma notícia, do mais recente para o mais antigo.
    *
    * @param newsId O ID da notícia.
-   * @return Uma lista de DTOs de comentários.
+   * @param cursor O cursor opaco da página anterior; ausente para a primeira página.
+   * @param size O número de comentários por página (máximo 50).
+   * @return A página de comentários e o cursor da próxima página.
    */
-  @GetMapping("/comments")
-  public ResponseEntity<List<CommentDTO>> getComments(@PathVariable UUID newsId) {
-    List<CommentDTO> comments = engagementService.getCommentsByNewsId(newsId);
-    return ResponseEntity.ok(comments);
+  @GetMapping("/{newsId}/comments")
+  public ResponseEntity<CursorPageDTO<CommentDTO>> getComments(
+      @PathVariable UUID newsId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(engagementService.getComments(newsId, cursor, size));
   }
 
   /**
@@ -76,7 +98,7 @@ public class EngagementController {
    * @param commentId O ID do comentário a ser deletado.
    * @return Uma resposta vazia com status 204.
    */
-  @DeleteMapping("/comments/{commentId}")
+  @DeleteMapping("/{newsId}/comments/{commentId}")
   @PreAuthorize("isAuthenticated()")
   public ResponseEntity<Void> deleteComment(
       @PathVariable UUID newsId, @PathVariable UUID commentId) {
@@ -88,24 +110,54 @@ public class EngagementController {
    * Adiciona ou remove uma curtida de uma notícia.
    *
    * @param newsId O ID da notícia.
-   * @return Um mapa contendo o novo total de curtidas.
+   * @return Um mapa contendo o novo total de curtidas e se o usuário passou a curtir a notícia.
    */
-  @PostMapping("/like")
+  @PostMapping("/{newsId}/like")
   @PreAuthorize("isAuthenticated()")
-  public ResponseEntity<Map<String, Long>> toggleLike(@PathVariable UUID newsId) {
-    long likeCount = engagementService.toggleLike(newsId);
-    return ResponseEntity.ok(Map.of("likeCount", likeCount));
+  public ResponseEntity<Map<String, Object>> toggleLike(@PathVariable UUID newsId) {
+    EngagementService.LikeToggle toggle = engagementService.toggleLike(newsId);
+    return ResponseEntity.ok(Map.of("likeCount", toggle.likeCount(), "liked", toggle.liked()));
   }
 
   /**
    * Retorna os dados de engajamento de uma notícia (total de curtidas e comentários).
    *
    * @param newsId O ID da notícia.
-   * @return Um mapa com os totais de engajamento.
+   * @return Os totais de engajamento e o estado de curtida do usuário autenticado.
+   */
+  @GetMapping("/{newsId}/engagement-stats")
+  public ResponseEntity<EngagementStatsDTO> getEngagementStats(@PathVariable UUID newsId) {
+    return ResponseEntity.ok(engagementService.getEngagementStats(newsId));
+  }
+
+  /**
+   * Retorna os dados de engajamento de várias notícias em uma única chamada, indexados pelo ID.
+   *
+   * @param ids Os IDs das notícias, separados por vírgula (no máximo 100).
+   * @return Um mapa do ID da notícia para seus totais e o estado de curtida do usuário.
    */
   @GetMapping("/engagement-stats")
-  public ResponseEntity<Map<String, Object>> getEngagementStats(@PathVariable UUID newsId) {
-    Map<String, Object> stats = engagementService.getEngagementStats(newsId);
-    return ResponseEntity.ok(stats);
+  public ResponseEntity<Map<UUID, EngagementStatsDTO>> getEngagementStatsBatch(
+      @RequestParam List<UUID> ids) {
+    return ResponseEntity.ok(engagementService.getEngagementStats(ids));
+  }
+
+  /**
+   * Abre um fluxo Server-Sent Events com os totais de engajamento de uma notícia. Um evento
+   * {@code engagement} é enviado na conexão e, depois, no máximo uma vez por intervalo quando os
+   * totais mudam.
+   *
+   * @param newsId O ID da notícia.
+   * @param request O HttpServletRequest, para limitar as conexões por IP.
+   * @return O fluxo de eventos, ou 404 se a notícia não existir.
+   */
+  @GetMapping(value = "/{newsId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamEngagement(
+      @PathVariable UUID newsId, HttpServletRequest request) {
+    return engagementStreamService
+        .subscribe(newsId, request.getRemoteAddr())
+        // Desativa o buffer de proxies reversos (nginx), que atrasaria os eventos
+        .map(emitter -> ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter))
+        .orElse(ResponseEntity.notFound().build());
   }
 }
\ No newline at end of file
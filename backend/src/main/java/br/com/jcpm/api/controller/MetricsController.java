@@ -0,0 +1,36 @@
+package br.com.jcpm.api.controller;
+
+import br.com.jcpm.api.service.MetricsSource;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador que expõe as métricas operacionais dos componentes em memória da aplicação.
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+  private final List<MetricsSource> metricsSources;
+
+  /**
+   * Retorna as métricas de todos os componentes registrados, agrupadas por nome.
+   *
+   * @return Um mapa de nome do componente para suas métricas.
+   */
+  @GetMapping
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+    Map<String, Map<String, Object>> metrics = new TreeMap<>();
+    metricsSources.forEach(source -> metrics.put(source.getMetricsName(), source.getMetrics()));
+    return ResponseEntity.ok(metrics);
+  }
+}
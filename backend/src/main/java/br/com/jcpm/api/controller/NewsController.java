@@ -2,21 +2,32 @@ package br.com.jcpm.api.controller;
 
 import br.com.jcpm.api.domain.entity.News;
 import br.com.jcpm.api.domain.entity.User;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.FeedVersionDTO;
+import br.com.jcpm.api.dto.NewsCardDTO;
 import br.com.jcpm.api.dto.NewsRequest;
+import br.com.jcpm.api.dto.NewsVersionDTO;
+import br.com.jcpm.api.exception.ResourceNotFoundException;
 import br.com.jcpm.api.repository.NewsRepository;
+import br.com.jcpm.api.security.UserPrincipal;
+import br.com.jcpm.api.service.NewsService;
+import br.com.jcpm.api.service.TimelineService;
+import br.com.jcpm.api.service.TrendingService;
+import br.com.jcpm.api.service.UserService;
 import jakarta.validation.Valid;
 import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,17 +35,32 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/noticias")
 public class NewsController {
 
   private final NewsRepository newsRepository;
+  private final NewsService newsService;
+  private final UserService userService;
+  private final TimelineService timelineService;
+  private final TrendingService trendingService;
 
   @Autowired
-  public NewsController(NewsRepository newsRepository) {
+  public NewsController(
+      NewsRepository newsRepository,
+      NewsService newsService,
+      UserService userService,
+      TimelineService timelineService,
+      TrendingService trendingService) {
     this.newsRepository = newsRepository;
+    this.newsService = newsService;
+    this.userService = userService;
+    this.timelineService = timelineService;
+    this.trendingService = trendingService;
   }
 
   private String generateSlug(String title) {
@@ -51,47 +77,118 @@ public class NewsController {
     return finalSlug;
   }
 
+  private static boolean hasConditionalHeaders(WebRequest webRequest) {
+    return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+        || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+  }
+
+  /**
+   * Verifica a versão da notícia contra os cabeçalhos condicionais. Quando coincidem, o Spring já
+   * prepara a resposta 304 e o handler deve apenas retornar null.
+   */
+  private static boolean isNotModified(
+      WebRequest webRequest, Optional<NewsVersionDTO> version) {
+    return version.isPresent()
+        && webRequest.checkNotModified(version.get().eTag(), version.get().lastModified());
+  }
+
+  private static ResponseEntity<News> okWithVersion(News news) {
+    NewsVersionDTO version = NewsVersionDTO.of(news);
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache())
+        .eTag(version.eTag())
+        .lastModified(version.lastModified())
+        .body(news);
+  }
+
   @GetMapping
   public ResponseEntity<List<News>> getAllPublicNews() {
     return ResponseEntity.ok(newsRepository.findAllByStatusOrderByPublicationDateDesc("PUBLICADO"));
   }
 
+  /**
+   * Feed público paginado por cursor, com apenas os campos necessários para os cards.
+   *
+   * @param cursor O cursor retornado pela página anterior (opcional).
+   * @param size O número de cards por página.
+   * @param webRequest A requisição, usada para tratar If-None-Match / If-Modified-Since.
+   * @return A página de cards e o cursor da próxima página, ou 304 se o feed não mudou.
+   */
+  @GetMapping("/feed")
+  public ResponseEntity<CursorPageDTO<NewsCardDTO>> getFeed(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size,
+      WebRequest webRequest) {
+    FeedVersionDTO version = newsService.getFeedVersion();
+    String eTag = version.eTag(cursor, size);
+    if (webRequest.checkNotModified(eTag, version.lastModified())) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache())
+        .eTag(eTag)
+        .lastModified(version.lastModified())
+        .body(newsService.getFeed(cursor, size));
+  }
+
+  /**
+   * Notícias "em alta": maiores pontuações de visualizações, curtidas e comentários com
+   * decaimento exponencial no tempo, calculadas em memória.
+   *
+   * @param limit O número de notícias (máximo 50).
+   * @return Os cards, da maior para a menor pontuação.
+   */
+  @GetMapping("/trending")
+  public ResponseEntity<List<NewsCardDTO>> getTrending(
+      @RequestParam(defaultValue = "10") int limit) {
+    return ResponseEntity.ok(trendingService.getTrending(limit));
+  }
+
   // ROTA CORRIGIDA para evitar ambiguidade
   @GetMapping("/slug/{slug}")
-  public ResponseEntity<News> getNewsBySlug(@PathVariable String slug) {
-    return newsRepository
+  public ResponseEntity<News> getNewsBySlug(@PathVariable String slug, WebRequest webRequest) {
+    if (hasConditionalHeaders(webRequest)
+        && isNotModified(webRequest, newsService.findVersionBySlug(slug))) {
+      return null;
+    }
+    return newsService
         .findBySlug(slug)
-        .map(ResponseEntity::ok)
+        .map(NewsController::okWithVersion)
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   @GetMapping("/manage")
   @PreAuthorize("hasRole('ADMIN') or hasRole('JOURNALIST')")
   public ResponseEntity<List<News>> getNewsForManagement() {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    User currentUser = (User) authentication.getPrincipal();
+    UserPrincipal currentUser = UserPrincipal.require();
 
-    if ("ADMIN".equals(currentUser.getUserType().name())) {
+    if (currentUser.isAdmin()) {
       return ResponseEntity.ok(newsRepository.findAll());
     }
 
-    return ResponseEntity.ok(newsRepository.findByAuthorId(currentUser.getId()));
+    return ResponseEntity.ok(newsRepository.findByAuthorId(currentUser.id()));
   }
 
   // Esta rota agora é única para UUIDs
   @GetMapping("/{id}")
-  public ResponseEntity<News> getNewsById(@PathVariable UUID id) {
-    return newsRepository
+  public ResponseEntity<News> getNewsById(@PathVariable UUID id, WebRequest webRequest) {
+    if (hasConditionalHeaders(webRequest)
+        && isNotModified(webRequest, newsService.findVersionById(id))) {
+      return null;
+    }
+    return newsService
         .findById(id)
-        .map(ResponseEntity::ok)
+        .map(NewsController::okWithVersion)
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   @PostMapping
   @PreAuthorize("hasRole('JOURNALIST') or hasRole('ADMIN')")
   public ResponseEntity<News> createNews(@Valid @RequestBody NewsRequest newsRequest) {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    User currentUser = (User) authentication.getPrincipal();
+    User currentUser =
+        userService
+            .findById(UserPrincipal.require().id())
+            .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
 
     News news = new News();
     news.setTitle(newsRequest.getTitle());
@@ -105,22 +202,22 @@ public class NewsController {
     news.setPublicationDate(LocalDateTime.now());
     news.setStatus(newsRequest.getStatus() != null ? newsRequest.getStatus() : "PUBLICADO");
 
-    News savedNews = newsRepository.save(news);
+    News savedNews = newsService.save(news);
+    timelineService.publish(savedNews);
     return new ResponseEntity<>(savedNews, HttpStatus.CREATED);
   }
 
   @PutMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN') or hasRole('JOURNALIST')")
   public ResponseEntity<?> updateNews(@PathVariable UUID id, @Valid @RequestBody NewsRequest newsRequest) {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    User currentUser = (User) authentication.getPrincipal();
+    UserPrincipal currentUser = UserPrincipal.require();
 
     return newsRepository
         .findById(id)
         .map(
             news -> {
-              boolean isOwner = news.getAuthor().getId().equals(currentUser.getId());
-              boolean isAdmin = "ADMIN".equals(currentUser.getUserType().name());
+              boolean isOwner = news.getAuthor().getId().equals(currentUser.id());
+              boolean isAdmin = currentUser.isAdmin();
 
               if (!isOwner && !isAdmin) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -136,9 +233,13 @@ public class NewsController {
               news.setFeaturedImageUrl(newsRequest.getFeaturedImageUrl());
               news.setPriority(newsRequest.getPriority());
               news.setUpdateDate(LocalDateTime.now());
+              boolean wasPublished = "PUBLICADO".equals(news.getStatus());
               news.setStatus(newsRequest.getStatus() != null ? newsRequest.getStatus() : news.getStatus());
 
-              News updatedNews = newsRepository.save(news);
+              News updatedNews = newsService.save(news);
+              if (!wasPublished) {
+                timelineService.publish(updatedNews);
+              }
               return ResponseEntity.ok(updatedNews);
             })
         .orElseGet(() -> ResponseEntity.notFound().build());
@@ -147,15 +248,14 @@ public class NewsController {
   @DeleteMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN') or hasRole('JOURNALIST')")
   public ResponseEntity<?> deleteNews(@PathVariable UUID id) {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    User currentUser = (User) authentication.getPrincipal();
+    UserPrincipal currentUser = UserPrincipal.require();
 
     return newsRepository
         .findById(id)
         .map(
             news -> {
-              boolean isOwner = news.getAuthor().getId().equals(currentUser.getId());
-              boolean isAdmin = "ADMIN".equals(currentUser.getUserType().name());
+              boolean isOwner = news.getAuthor().getId().equals(currentUser.id());
+              boolean isAdmin = currentUser.isAdmin();
 
               if (!isOwner && !isAdmin) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -164,7 +264,7 @@ public class NewsController {
                             "error", "Você não tem permissão para excluir esta notícia."));
               }
 
-              newsRepository.delete(news);
+              newsService.delete(news);
               return ResponseEntity.noContent().build();
             })
         .orElseGet(() -> ResponseEntity.notFound().build());
@@ -2,13 +2,29 @@ package br.com.jcpm.api.controller;
 
 import br.com.jcpm.api.domain.entity.User;
 import br.com.jcpm.api.domain.enums.UserType;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.NewsCardDTO;
+import br.com.jcpm.api.dto.UserFilter;
+import br.com.jcpm.api.dto.UserProfileDTO;
+import br.com.jcpm.api.dto.UserProfileDTO.NewsSummaryDTO;
 import br.com.jcpm.api.dto.UserResponse;
+import br.com.jcpm.api.dto.UserSummaryDTO;
 import br.com.jcpm.api.dto.UserUpdateRequest; // Importar o novo DTO
+import br.com.jcpm.api.security.UserPrincipal;
+import br.com.jcpm.api.service.FollowGraphService;
+import br.com.jcpm.api.service.ProfileService;
+import br.com.jcpm.api.service.TimelineService;
+import br.com.jcpm.api.service.UserExportService;
+import br.com.jcpm.api.service.UserExportService.ExportFormat;
 import br.com.jcpm.api.service.UserService;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -17,29 +33,94 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
 
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final UserService userService;
+  private final UserExportService userExportService;
+  private final FollowGraphService followGraphService;
+  private final TimelineService timelineService;
+  private final ProfileService profileService;
 
   public record UserStats(
       long totalUsers, long totalAdmins, long totalJournalists, long totalCommonUsers) {}
 
   @GetMapping("/perfil/{username}")
-  public ResponseEntity<UserResponse> getPublicProfile(@PathVariable String username) {
-    return userService
-        .findByUsername(username)
-        .map(user -> ResponseEntity.ok(new UserResponse(user)))
+  public ResponseEntity<UserProfileDTO> getPublicProfile(@PathVariable String username) {
+    UUID viewerId = UserPrincipal.current().map(UserPrincipal::id).orElse(null);
+    return profileService
+        .getProfile(username, viewerId)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Lista as notícias publicadas de um usuário, a partir do cursor devolvido no perfil.
+   *
+   * @param username O nome de usuário.
+   * @param cursor O cursor opaco da página anterior; ausente para a primeira página.
+   * @param size O número de notícias por página (máximo 50).
+   * @return A página de resumos e o cursor da próxima página.
+   */
+  @GetMapping("/perfil/{username}/noticias")
+  public ResponseEntity<CursorPageDTO<NewsSummaryDTO>> getPublishedNews(
+      @PathVariable String username,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "12") int size) {
+    return profileService
+        .listPublishedNews(username, cursor, size)
+        .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
   }
 
+  @PostMapping("/{id}/follow")
+  @PreAuthorize("isAuthenticated()")
+  public ResponseEntity<?> followUser(@PathVariable UUID id) {
+    try {
+      UUID followerId = UserPrincipal.require().id();
+      followGraphService.follow(followerId, id);
+      timelineService.backfill(followerId, id);
+      return ResponseEntity.noContent().build();
+    } catch (UsernameNotFoundException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @DeleteMapping("/{id}/follow")
+  @PreAuthorize("isAuthenticated()")
+  public ResponseEntity<?> unfollowUser(@PathVariable UUID id) {
+    followGraphService.unfollow(UserPrincipal.require().id(), id);
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/{id}/followers")
+  public ResponseEntity<CursorPageDTO<UserSummaryDTO>> getFollowers(
+      @PathVariable UUID id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(followGraphService.listFollowers(id, cursor, size));
+  }
+
+  @GetMapping("/{id}/following")
+  public ResponseEntity<CursorPageDTO<UserSummaryDTO>> getFollowing(
+      @PathVariable UUID id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(followGraphService.listFollowing(id, cursor, size));
+  }
+
   @GetMapping("/me")
   @PreAuthorize("isAuthenticated()")
   public ResponseEntity<UserResponse> getMyProfile() {
@@ -51,6 +132,23 @@ public class UserController {
     return ResponseEntity.ok(new UserResponse(user));
   }
 
+  /**
+   * Retorna a timeline do usuário autenticado: as notícias publicadas pelos autores que ele segue,
+   * da mais recente para a mais antiga.
+   *
+   * @param cursor O cursor opaco da página anterior; ausente para a primeira página.
+   * @param size O número de notícias por página (máximo 50).
+   * @return A página de cards e o cursor da próxima página.
+   */
+  @GetMapping("/me/timeline")
+  @PreAuthorize("isAuthenticated()")
+  public ResponseEntity<CursorPageDTO<NewsCardDTO>> getMyTimeline(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    return ResponseEntity.ok(
+        timelineService.getTimeline(UserPrincipal.require().id(), cursor, size));
+  }
+
   @PutMapping("/me")
   @PreAuthorize("isAuthenticated()")
   public ResponseEntity<UserResponse> updateMyProfile(@RequestBody UserUpdateRequest userDetails) {
@@ -74,6 +172,64 @@ public class UserController {
     return userService.findAll().stream().map(UserResponse::new).collect(Collectors.toList());
   }
 
+  /**
+   * Lista usuários com filtros opcionais, paginando por cursor.
+   *
+   * @param userType O perfil.
+   * @param active O status da conta.
+   * @param registeredFrom O primeiro dia de cadastro (inclusivo).
+   * @param registeredTo O último dia de cadastro (inclusivo).
+   * @param cursor O cursor opaco da página anterior; ausente para a primeira página.
+   * @param size O número de usuários por página (máximo 100).
+   * @return A página de usuários e o cursor da próxima página.
+   */
+  @GetMapping("/search")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<CursorPageDTO<UserResponse>> searchUsers(
+      @RequestParam(required = false) UserType userType,
+      @RequestParam(required = false) Boolean active,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate registeredFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate registeredTo,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int size) {
+    UserFilter filter = new UserFilter(userType, active, registeredFrom, registeredTo);
+    return ResponseEntity.ok(userService.search(filter, cursor, size));
+  }
+
+  /**
+   * Exporta os usuários que atendem aos filtros, escrevendo as linhas à medida que são lidas do
+   * banco.
+   *
+   * @param format O formato: ndjson ou csv.
+   * @param userType O perfil.
+   * @param active O status da conta.
+   * @param registeredFrom O primeiro dia de cadastro (inclusivo).
+   * @param registeredTo O último dia de cadastro (inclusivo).
+   * @return O corpo da resposta em streaming.
+   */
+  @GetMapping("/export")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<StreamingResponseBody> exportUsers(
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(required = false) UserType userType,
+      @RequestParam(required = false) Boolean active,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate registeredFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate registeredTo) {
+    ExportFormat exportFormat = ExportFormat.parse(format);
+    UserFilter filter = new UserFilter(userType, active, registeredFrom, registeredTo);
+    StreamingResponseBody body = out -> userExportService.export(filter, exportFormat, out);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+        .body(body);
+  }
+
   @GetMapping("/{id}")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<UserResponse> getUserById(@PathVariable UUID id) {
@@ -140,11 +296,16 @@ public class UserController {
 
   @GetMapping("/tipo/{tipoUser}")
   @PreAuthorize("hasRole('ADMIN')")
-  public ResponseEntity<List<UserResponse>> getUsersByType(@PathVariable("tipoUser") String userTypeString) {
+  public ResponseEntity<List<UserResponse>> getUsersByType(
+      @PathVariable("tipoUser") String userTypeString,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "50") int size) {
     try {
       UserType type = UserType.valueOf(userTypeString.toUpperCase());
       List<UserResponse> users =
-          userService.findByUserType(type).stream()
+          userService
+              .findByUserType(type, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE))
+              .stream()
               .map(UserResponse::new)
               .collect(Collectors.toList());
       return ResponseEntity.ok(users);
@@ -156,12 +317,13 @@ public class UserController {
   @GetMapping("/stats")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<UserStats> getUserStats() {
-    long totalUsers = userService.countUsers();
-    long totalAdmins = userService.countUsersByType(UserType.ADMIN);
-    long totalJournalists = userService.countUsersByType(UserType.JOURNALIST);
-    long totalCommonUsers = userService.countUsersByType(UserType.USER);
+    UserService.UserCounts counts = userService.getUserCounts();
 
     return ResponseEntity.ok(
-        new UserStats(totalUsers, totalAdmins, totalJournalists, totalCommonUsers));
+        new UserStats(
+            counts.total(),
+            counts.count(UserType.ADMIN),
+            counts.count(UserType.JOURNALIST),
+            counts.count(UserType.USER)));
   }
 }
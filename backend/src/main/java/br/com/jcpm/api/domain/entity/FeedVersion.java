@@ -0,0 +1,32 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versão de um feed, incrementada a cada escrita que pode alterá-lo. Lida pela chave primária na
+ * validação condicional (ETag / Last-Modified) do feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "feed_versions")
+public class FeedVersion {
+
+  @Id
+  @Column(name = "feed_name", length = 64)
+  private String feedName;
+
+  @Column(nullable = false)
+  private long version;
+
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+}
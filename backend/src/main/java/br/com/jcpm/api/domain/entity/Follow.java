@@ -1,5 +1,7 @@
 package br.com.jcpm.api.domain.entity;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
@@ -7,9 +9,12 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.Table;
 import java.io.Serializable;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 /**
  * Representa a relação de "seguir" entre dois usuários.
@@ -40,8 +45,15 @@ public class Follow {
   @Data
   @NoArgsConstructor
   @AllArgsConstructor
+  @Embeddable
   public static class FollowId implements Serializable {
-    private String followerId;
-    private String followedId;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "follower_id", columnDefinition = "CHAR(36)")
+    private UUID followerId;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "followed_id", columnDefinition = "CHAR(36)")
+    private UUID followedId;
   }
-}
\ No newline at end of file
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
@@ -26,7 +27,10 @@ import org.hibernate.type.SqlTypes;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "likes")
+// A alternância sem leitura (EngagementService.toggleLike) depende desta chave única
+@Table(
+    name = "likes",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "news_id"}))
 public class Like {
 
   @Id
@@ -0,0 +1,41 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Contadores de engajamento desnormalizados de uma notícia, persistidos periodicamente a partir
+ * dos contadores em memória.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "news_counters")
+public class NewsCounters {
+
+  @Id
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(name = "news_id", columnDefinition = "CHAR(36)")
+  private UUID newsId;
+
+  @Column(nullable = false)
+  private long likeCount;
+
+  @Column(nullable = false)
+  private long commentCount;
+
+  @Column(nullable = false)
+  private long viewCount;
+
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,55 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Sketch HyperLogLog serializado com os leitores distintos de uma notícia em um dia. O dia
+ * 1970-01-01 guarda o sketch acumulado de todo o período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reader_sketches")
+public class ReaderSketch {
+
+  @EmbeddedId
+  private ReaderSketchId id;
+
+  @Lob
+  @Column(nullable = false, columnDefinition = "BLOB")
+  private byte[] registers;
+
+  private LocalDateTime updatedAt;
+
+  /**
+   * Chave primária composta para a entidade ReaderSketch.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Embeddable
+  public static class ReaderSketchId implements Serializable {
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "news_id", columnDefinition = "CHAR(36)")
+    private UUID newsId;
+
+    @Column(name = "sketch_day")
+    private LocalDate sketchDay;
+  }
+}
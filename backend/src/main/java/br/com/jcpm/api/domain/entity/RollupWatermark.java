@@ -0,0 +1,28 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marca d'água (high-water mark) de um job de compactação: tudo antes dela já foi agregado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+
+  @Id
+  @Column(name = "job_name", length = 64)
+  private String jobName;
+
+  @Column(nullable = false)
+  private LocalDateTime highWater;
+}
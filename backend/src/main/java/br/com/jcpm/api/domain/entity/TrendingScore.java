@@ -0,0 +1,36 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Retrato da pontuação de "em alta" de uma notícia: o valor já decaído no instante em que foi
+ * gravado, usado para restaurar o ranking após uma reinicialização.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+
+  @Id
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(name = "news_id", columnDefinition = "CHAR(36)")
+  private UUID newsId;
+
+  @Column(nullable = false)
+  private double score;
+
+  @Column(nullable = false)
+  private LocalDateTime scoredAt;
+}
@@ -0,0 +1,37 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Época de segurança de um usuário. Tokens emitidos com uma época menor que a atual são
+ * rejeitados; a época é incrementada ao desativar, excluir ou alterar o perfil do usuário. Usuários
+ * sem linha nesta tabela estão na época 0.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_security_epochs")
+public class UserSecurityEpoch {
+
+  @Id
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(name = "user_id", columnDefinition = "CHAR(36)")
+  private UUID userId;
+
+  @Column(nullable = false)
+  private long epoch;
+
+  @Column(nullable = false, columnDefinition = "DATETIME(3)")
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Forma persistida da timeline personalizada de um usuário: as notícias mais recentes dos autores
+ * que ele segue, em formato binário compacto (24 bytes por notícia).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_timelines")
+public class UserTimeline {
+
+  @Id
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(name = "user_id", columnDefinition = "CHAR(36)")
+  private UUID userId;
+
+  @Lob
+  @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+  private byte[] entries;
+
+  private LocalDateTime updatedAt;
+}
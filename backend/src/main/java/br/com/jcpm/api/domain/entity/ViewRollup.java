@@ -0,0 +1,52 @@
+package br.com.jcpm.api.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Agregado de visualizações de uma notícia por dia e hora, mantido pelo job de compactação.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "view_rollups")
+public class ViewRollup {
+
+  @EmbeddedId
+  private ViewRollupId id;
+
+  @Column(nullable = false)
+  private long viewCount;
+
+  /**
+   * Chave primária composta para a entidade ViewRollup.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Embeddable
+  public static class ViewRollupId implements Serializable {
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "news_id", columnDefinition = "CHAR(36)")
+    private UUID newsId;
+
+    @Column(name = "view_day")
+    private LocalDate viewDay;
+
+    @Column(name = "view_hour")
+    private int viewHour;
+  }
+}
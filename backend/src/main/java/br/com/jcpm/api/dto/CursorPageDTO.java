@@ -0,0 +1,42 @@
+package br.com.jcpm.api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO genérico para respostas paginadas por cursor (keyset).
+ *
+ * @param <T> O tipo dos itens da página.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+  private List<T> items;
+  private String nextCursor;
+  private boolean hasMore;
+
+  /**
+   * Monta uma página a partir de uma consulta que buscou {@code pageSize + 1} linhas. A linha
+   * excedente apenas indica que existe uma próxima página e é descartada.
+   *
+   * @param rows As linhas retornadas pela consulta.
+   * @param pageSize O tamanho de página solicitado.
+   * @param cursorOf Função que gera o cursor a partir do último item da página.
+   * @param <T> O tipo dos itens.
+   * @return A página montada.
+   */
+  public static <T> CursorPageDTO<T> fromRows(
+      List<T> rows, int pageSize, Function<T, String> cursorOf) {
+    boolean hasMore = rows.size() > pageSize;
+    List<T> items = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+    String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+    return new CursorPageDTO<>(items, nextCursor, hasMore);
+  }
+}
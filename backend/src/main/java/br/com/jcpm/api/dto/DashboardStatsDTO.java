@@ -29,6 +29,8 @@ public class DashboardStatsDTO {
    */
   @Data
   @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
   public static class NewsMetric {
     private String title;
     private String slug;
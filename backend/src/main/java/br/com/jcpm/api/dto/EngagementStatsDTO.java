@@ -0,0 +1,22 @@
+package br.com.jcpm.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com os totais de engajamento de uma notícia e o estado de curtida do usuário autenticado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementStatsDTO {
+
+  private long likeCount;
+  private long commentCount;
+  @JsonProperty("isLikedByCurrentUser")
+  private boolean likedByCurrentUser;
+}
@@ -0,0 +1,39 @@
+package br.com.jcpm.api.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Versão atual do feed público, usada para responder requisições condicionais do feed sem
+ * executar a consulta de páginas.
+ *
+ * @param version O contador de escritas do feed.
+ * @param updatedAt O instante da última escrita, ou null se o feed nunca foi alterado.
+ */
+public record FeedVersionDTO(long version, LocalDateTime updatedAt) {
+
+  /**
+   * Retorna o instante da última modificação do feed em milissegundos desde a época.
+   *
+   * @return O timestamp da última modificação, ou 0 se o feed nunca foi alterado.
+   */
+  public long lastModified() {
+    if (updatedAt == null) {
+      return 0;
+    }
+    return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Retorna o ETag de uma página específica do feed.
+   *
+   * @param cursor O cursor da página solicitada.
+   * @param size O tamanho da página solicitada.
+   * @return O valor do ETag (sem aspas).
+   */
+  public String eTag(String cursor, int size) {
+    int page = Objects.hash(cursor, size);
+    return "feed-" + Long.toHexString(version) + "-" + Integer.toHexString(page);
+  }
+}
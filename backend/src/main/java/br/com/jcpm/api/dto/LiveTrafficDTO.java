@@ -0,0 +1,24 @@
+package br.com.jcpm.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as visualizações por minuto de uma notícia, lidas do buffer em memória.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveTrafficDTO {
+
+  private UUID newsId;
+  // Início do primeiro minuto da série; cada posição seguinte avança um minuto
+  private LocalDateTime from;
+  private long[] viewsPerMinute;
+  private long totalViews;
+}
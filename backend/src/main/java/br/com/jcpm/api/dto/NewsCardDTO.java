@@ -0,0 +1,28 @@
+package br.com.jcpm.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO leve para os cards do feed público, sem o conteúdo completo da notícia.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsCardDTO {
+
+  private UUID id;
+  private String title;
+  private String slug;
+  private String summary;
+  private String featuredImageUrl;
+  private Integer priority;
+  private LocalDateTime publicationDate;
+  private String authorName;
+  private UUID authorId;
+}
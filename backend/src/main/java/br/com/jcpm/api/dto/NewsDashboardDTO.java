@@ -23,6 +23,10 @@ public class NewsDashboardDTO {
   private long totalViews;
   private long totalLikes;
   private long totalComments;
+  // Leitores distintos estimados por HyperLogLog (erro típico de ~1,6% com precisão 12)
+  private long uniqueReaders;
+  private long uniqueReadersToday;
+  private long uniqueReadersLast7Days;
   private List<Map<String, Object>> viewsOverTime; // Ex: [{"date": "2024-10-01", "views": 150}]
   private List<CommentDTO> recentComments;
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package br.com.jcpm.api.dto;
+
+import br.com.jcpm.api.domain.entity.News;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Projeção mínima com a versão de uma notícia, usada para responder requisições condicionais
+ * (ETag / Last-Modified) sem carregar o conteúdo.
+ *
+ * @param id O ID da notícia.
+ * @param publicationDate A data de publicação.
+ * @param updateDate A data da última atualização (pode ser nula).
+ */
+public record NewsVersionDTO(UUID id, LocalDateTime publicationDate, LocalDateTime updateDate) {
+
+  /**
+   * Cria a versão a partir de uma notícia já carregada.
+   *
+   * @param news A notícia.
+   * @return A versão correspondente.
+   */
+  public static NewsVersionDTO of(News news) {
+    return new NewsVersionDTO(news.getId(), news.getPublicationDate(), news.getUpdateDate());
+  }
+
+  /**
+   * Retorna o instante da última modificação em milissegundos desde a época.
+   *
+   * @return O timestamp da última modificação.
+   */
+  public long lastModified() {
+    LocalDateTime modified = updateDate != null ? updateDate : publicationDate;
+    return modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Retorna o ETag forte da notícia, derivado do ID e da data de atualização.
+   *
+   * @return O valor do ETag (sem aspas).
+   */
+  public String eTag() {
+    return id + "-" + Long.toHexString(lastModified());
+  }
+}
@@ -0,0 +1,27 @@
+package br.com.jcpm.api.dto;
+
+import br.com.jcpm.api.domain.enums.UserType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais da listagem administrativa de usuários. Campos nulos não filtram.
+ *
+ * @param userType O perfil.
+ * @param active O status da conta.
+ * @param registeredFrom O primeiro dia de cadastro (inclusivo).
+ * @param registeredTo O último dia de cadastro (inclusivo).
+ */
+public record UserFilter(
+    UserType userType, Boolean active, LocalDate registeredFrom, LocalDate registeredTo) {
+
+  /** Início do intervalo de cadastro, ou null. */
+  public LocalDateTime registeredFromInclusive() {
+    return registeredFrom != null ? registeredFrom.atStartOfDay() : null;
+  }
+
+  /** Fim do intervalo de cadastro (exclusivo, início do dia seguinte), ou null. */
+  public LocalDateTime registeredToExclusive() {
+    return registeredTo != null ? registeredTo.plusDays(1).atStartOfDay() : null;
+  }
+}
@@ -1,7 +1,7 @@
 package br.com.jcpm.api.dto;
 
-import br.com.jcpm.api.domain.entity.News;
 import br.com.jcpm.api.domain.enums.UserType;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -11,10 +11,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * DTO para exibir o perfil público de um usuário, incluindo suas notícias (se for jornalista).
+ * DTO para exibir o perfil público de um usuário, incluindo a primeira página de suas notícias
+ * (se for jornalista). As páginas seguintes são obtidas com {@code publishedNewsNextCursor}.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserProfileDTO {
@@ -28,15 +29,21 @@ public class UserProfileDTO {
   private LocalDateTime registrationDate;
   private long followersCount;
   private long followingCount;
-  private boolean isFollowedByCurrentUser;
+  @JsonProperty("isFollowedByCurrentUser")
+  private boolean followedByCurrentUser;
+  private long publishedNewsCount;
   private List<NewsSummaryDTO> publishedNews;
+  private String publishedNewsNextCursor;
 
   /**
    * Sub-DTO para resumir as notícias no perfil do jornalista.
    */
   @Data
   @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
   public static class NewsSummaryDTO {
+    private UUID id;
     private String title;
     private String slug;
     private String summary;
@@ -0,0 +1,24 @@
+package br.com.jcpm.api.dto;
+
+import br.com.jcpm.api.domain.enums.UserType;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com os dados públicos mínimos de um usuário, usado em listas de seguidores e seguidos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+  private UUID id;
+  private String username;
+  private String name;
+  private String profileImageUrl;
+  private UserType userType;
+}
@@ -0,0 +1,17 @@
+package br.com.jcpm.api.exception;
+
+/**
+ * Indica que a requisição do cliente é inválida (ex: cursor malformado, limite excedido). É a
+ * única exceção respondida com status 400 pelo {@link GlobalExceptionHandler}; erros internos,
+ * mesmo que sejam {@link IllegalArgumentException}, continuam resultando em 500.
+ */
+public class BadRequestException extends RuntimeException {
+
+  public BadRequestException(String message) {
+    super(message);
+  }
+
+  public BadRequestException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
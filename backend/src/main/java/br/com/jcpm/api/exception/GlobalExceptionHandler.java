@@ -3,6 +3,7 @@ package br.com.jcpm.api.exception;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -74,4 +75,32 @@ public class GlobalExceptionHandler {
     error.put("message", ex.getMessage());
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
   }
+
+  /**
+   * Captura a saturação de recursos limitados do servidor (ex: pool de hash de senhas).
+   *
+   * @param ex A exceção lançada.
+   * @return Um mapa com a mensagem da exceção, status 503 e o cabeçalho Retry-After.
+   */
+  @ExceptionHandler(ServiceBusyException.class)
+  public ResponseEntity<Map<String, String>> handleServiceBusyException(ServiceBusyException ex) {
+    Map<String, String> error = new HashMap<>();
+    error.put("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(error);
+  }
+
+  /**
+   * Captura parâmetros inválidos enviados pelo cliente (ex: cursores de paginação malformados).
+   *
+   * @param ex A exceção lançada.
+   * @return Um mapa com a mensagem da exceção e status 400.
+   */
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<Map<String, String>> handleBadRequestException(BadRequestException ex) {
+    Map<String, String> error = new HashMap<>();
+    error.put("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+  }
 }
@@ -0,0 +1,19 @@
+package br.com.jcpm.api.exception;
+
+/**
+ * Indica que um recurso limitado do servidor está saturado e a requisição deve ser repetida mais
+ * tarde. Respondida com status 503 e o cabeçalho Retry-After.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public ServiceBusyException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -1,10 +1,14 @@
 package br.com.jcpm.api.repository;
 
 import br.com.jcpm.api.domain.entity.Comment;
+import br.com.jcpm.api.dto.CommentDTO;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,12 +18,40 @@ import org.springframework.stereotype.Repository;
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
 
   /**
-   * Encontra todos os comentários de uma notícia específica, ordenados por data de criação.
+   * Retorna os comentários mais recentes de uma notícia, já com os dados do autor, em uma única
+   * consulta. Ordenados por (data de criação, id) decrescente.
    *
    * @param newsId O ID da notícia.
-   * @return Uma lista de comentários.
+   * @param pageable O limite de linhas.
+   * @return Os comentários projetados.
    */
-  List<Comment> findByNewsIdOrderByCreatedAtDesc(UUID newsId);
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.CommentDTO(c.id, c.content, c.createdAt, u.id, u.name, "
+          + "u.profileImageUrl) "
+          + "FROM Comment c JOIN c.user u WHERE c.news.id = :newsId "
+          + "ORDER BY c.createdAt DESC, c.id DESC")
+  List<CommentDTO> findPageByNewsId(@Param("newsId") UUID newsId, Pageable pageable);
+
+  /**
+   * Retorna os comentários de uma notícia posteriores ao cursor (createdAt, id) informado.
+   *
+   * @param newsId O ID da notícia.
+   * @param createdAt A data do último comentário já entregue.
+   * @param id O ID do último comentário já entregue.
+   * @param pageable O limite de linhas.
+   * @return Os comentários projetados.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.CommentDTO(c.id, c.content, c.createdAt, u.id, u.name, "
+          + "u.profileImageUrl) "
+          + "FROM Comment c JOIN c.user u WHERE c.news.id = :newsId "
+          + "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) "
+          + "ORDER BY c.createdAt DESC, c.id DESC")
+  List<CommentDTO> findPageByNewsIdAfter(
+      @Param("newsId") UUID newsId,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") UUID id,
+      Pageable pageable);
 
   /**
    * Conta o número total de comentários para uma notícia.
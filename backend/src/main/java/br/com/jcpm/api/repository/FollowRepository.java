@@ -2,37 +2,54 @@ package br.com.jcpm.api.repository;
 
 import br.com.jcpm.api.domain.entity.Follow;
 import br.com.jcpm.api.domain.entity.Follow.FollowId;
+import br.com.jcpm.api.dto.UserSummaryDTO;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repositório para operações de banco de dados relacionadas à entidade Follow.
+ *
+ * <p>Contagens e verificações de relação são servidas pelo grafo em memória de {@code
+ * FollowGraphService}; aqui ficam apenas as listagens paginadas, que precisam dos dados dos
+ * usuários.
  */
 @Repository
 public interface FollowRepository extends JpaRepository<Follow, FollowId> {
 
   /**
-   * Conta quantos seguidores um determinado usuário possui.
+   * Lista os seguidores de um usuário, paginando por keyset sobre o ID do seguidor.
    *
-   * @param followedId O ID do usuário que está sendo seguido.
-   * @return A contagem de seguidores.
+   * @param userId O ID do usuário seguido.
+   * @param after O ID do último seguidor já entregue, ou null para a primeira página.
+   * @param pageable Limite de linhas da página.
+   * @return Os seguidores, em ordem de ID.
    */
-  long countByFollowedId(String followedId);
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.UserSummaryDTO(u.id, u.username, u.name, "
+          + "u.profileImageUrl, u.userType) "
+          + "FROM Follow f JOIN f.follower u WHERE f.id.followedId = :userId "
+          + "AND (:after IS NULL OR f.id.followerId > :after) ORDER BY f.id.followerId")
+  List<UserSummaryDTO> findFollowers(
+      @Param("userId") UUID userId, @Param("after") UUID after, Pageable pageable);
 
   /**
-   * Conta quantos usuários um determinado usuário está seguindo.
+   * Lista os usuários seguidos por um usuário, paginando por keyset sobre o ID do seguido.
    *
-   * @param followerId O ID do usuário que segue outros.
-   * @return A contagem de usuários seguidos.
+   * @param userId O ID do seguidor.
+   * @param after O ID do último seguido já entregue, ou null para a primeira página.
+   * @param pageable Limite de linhas da página.
+   * @return Os usuários seguidos, em ordem de ID.
    */
-  long countByFollowerId(String followerId);
-
-  /**
-   * Verifica se um usuário segue outro.
-   *
-   * @param followerId O ID do potencial seguidor.
-   * @param followedId O ID do usuário que é potencialmente seguido.
-   * @return true se a relação de seguir existe, caso contrário false.
-   */
-  boolean existsByFollowerIdAndFollowedId(String followerId, String followedId);
-}
\ No newline at end of file
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.UserSummaryDTO(u.id, u.username, u.name, "
+          + "u.profileImageUrl, u.userType) "
+          + "FROM Follow f JOIN f.followed u WHERE f.id.followerId = :userId "
+          + "AND (:after IS NULL OR f.id.followedId > :after) ORDER BY f.id.followedId")
+  List<UserSummaryDTO> findFollowing(
+      @Param("userId") UUID userId, @Param("after") UUID after, Pageable pageable);
+}
@@ -0,0 +1,82 @@
+package br.com.jcpm.api.repository;
+
+import br.com.jcpm.api.domain.entity.NewsCounters;
+import br.com.jcpm.api.dto.DashboardStatsDTO.NewsMetric;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório para consultas agregadas sobre os contadores desnormalizados de engajamento.
+ */
+@Repository
+public interface NewsCountersRepository extends JpaRepository<NewsCounters, UUID> {
+
+  /**
+   * Projeção com todos os totais do dashboard, calculados em uma única instrução.
+   */
+  interface DashboardTotals {
+    long getTotalNews();
+
+    long getTotalUsers();
+
+    long getTotalViews();
+
+    long getTotalLikes();
+
+    long getTotalComments();
+  }
+
+  /**
+   * Calcula os totais gerais do sistema em uma única consulta.
+   *
+   * @return Os totais de notícias, usuários, visualizações, curtidas e comentários.
+   */
+  @Query(
+      nativeQuery = true,
+      value =
+          "SELECT (SELECT COUNT(*) FROM noticias) AS totalNews, "
+              + "(SELECT COUNT(*) FROM users) AS totalUsers, "
+              + "COALESCE(SUM(c.view_count), 0) AS totalViews, "
+              + "COALESCE(SUM(c.like_count), 0) AS totalLikes, "
+              + "COALESCE(SUM(c.comment_count), 0) AS totalComments "
+              + "FROM news_counters c")
+  DashboardTotals findDashboardTotals();
+
+  /**
+   * Retorna as notícias mais visualizadas.
+   *
+   * @param pageable Limite de linhas.
+   * @return As métricas das notícias, da maior para a menor contagem.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.DashboardStatsDTO$NewsMetric(n.title, n.slug, c.viewCount) "
+          + "FROM NewsCounters c JOIN News n ON n.id = c.newsId ORDER BY c.viewCount DESC")
+  List<NewsMetric> findMostViewed(Pageable pageable);
+
+  /**
+   * Retorna as notícias mais curtidas.
+   *
+   * @param pageable Limite de linhas.
+   * @return As métricas das notícias, da maior para a menor contagem.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.DashboardStatsDTO$NewsMetric(n.title, n.slug, c.likeCount) "
+          + "FROM NewsCounters c JOIN News n ON n.id = c.newsId ORDER BY c.likeCount DESC")
+  List<NewsMetric> findMostLiked(Pageable pageable);
+
+  /**
+   * Retorna as notícias mais comentadas.
+   *
+   * @param pageable Limite de linhas.
+   * @return As métricas das notícias, da maior para a menor contagem.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.DashboardStatsDTO$NewsMetric(n.title, n.slug, "
+          + "c.commentCount) FROM NewsCounters c JOIN News n ON n.id = c.newsId "
+          + "ORDER BY c.commentCount DESC")
+  List<NewsMetric> findMostCommented(Pageable pageable);
+}
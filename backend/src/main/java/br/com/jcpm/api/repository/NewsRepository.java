@@ -1,16 +1,138 @@
 package br.com.jcpm.api.repository;
 
 import br.com.jcpm.api.domain.entity.News;
+import br.com.jcpm.api.dto.NewsCardDTO;
+import br.com.jcpm.api.dto.NewsVersionDTO;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News, UUID> {
   List<News> findByAuthorId(UUID authorId);
+  long countByAuthorIdAndStatus(UUID authorId, String status);
   Optional<News> findBySlug(String slug);
   boolean existsBySlug(String slug);
   List<News> findAllByStatusOrderByPublicationDateDesc(String status);
+
+  /**
+   * Retorna a primeira página do feed como projeção de cards, ordenada por (data, id).
+   *
+   * @param status O status das notícias.
+   * @param pageable Limite de linhas da página.
+   * @return Os cards da primeira página.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsCardDTO(n.id, n.title, n.slug, n.summary, "
+          + "n.featuredImageUrl, n.priority, n.publicationDate, a.name, a.id) "
+          + "FROM News n JOIN n.author a WHERE n.status = :status "
+          + "ORDER BY n.publicationDate DESC, n.id DESC")
+  List<NewsCardDTO> findFeedFirstPage(@Param("status") String status, Pageable pageable);
+
+  /**
+   * Retorna a página do feed posterior ao cursor (publicationDate, id) informado.
+   *
+   * @param status O status das notícias.
+   * @param publicationDate A data de publicação do último card já entregue.
+   * @param id O ID do último card já entregue.
+   * @param pageable Limite de linhas da página.
+   * @return Os cards da página seguinte.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsCardDTO(n.id, n.title, n.slug, n.summary, "
+          + "n.featuredImageUrl, n.priority, n.publicationDate, a.name, a.id) "
+          + "FROM News n JOIN n.author a WHERE n.status = :status "
+          + "AND (n.publicationDate < :publicationDate "
+          + "OR (n.publicationDate = :publicationDate AND n.id < :id)) "
+          + "ORDER BY n.publicationDate DESC, n.id DESC")
+  List<NewsCardDTO> findFeedPageAfter(
+      @Param("status") String status,
+      @Param("publicationDate") LocalDateTime publicationDate,
+      @Param("id") UUID id,
+      Pageable pageable);
+
+  /**
+   * Busca os cards de um conjunto de notícias com o status informado, em qualquer ordem.
+   *
+   * @param ids Os IDs das notícias.
+   * @param status O status das notícias.
+   * @return Os cards encontrados.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsCardDTO(n.id, n.title, n.slug, n.summary, "
+          + "n.featuredImageUrl, n.priority, n.publicationDate, a.name, a.id) "
+          + "FROM News n JOIN n.author a WHERE n.id IN :ids AND n.status = :status")
+  List<NewsCardDTO> findCardsByIds(
+      @Param("ids") Collection<UUID> ids, @Param("status") String status);
+
+  /**
+   * Retorna a primeira página de notícias de um conjunto de autores, ordenada por (data, id).
+   *
+   * @param authorIds Os IDs dos autores.
+   * @param status O status das notícias.
+   * @param pageable Limite de linhas da página.
+   * @return Os cards da primeira página.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsCardDTO(n.id, n.title, n.slug, n.summary, "
+          + "n.featuredImageUrl, n.priority, n.publicationDate, a.name, a.id) "
+          + "FROM News n JOIN n.author a WHERE a.id IN :authorIds AND n.status = :status "
+          + "ORDER BY n.publicationDate DESC, n.id DESC")
+  List<NewsCardDTO> findAuthorsFirstPage(
+      @Param("authorIds") Collection<UUID> authorIds,
+      @Param("status") String status,
+      Pageable pageable);
+
+  /**
+   * Retorna a página de notícias de um conjunto de autores posterior ao cursor (data, id).
+   *
+   * @param authorIds Os IDs dos autores.
+   * @param status O status das notícias.
+   * @param publicationDate A data de publicação do último card já entregue.
+   * @param id O ID do último card já entregue.
+   * @param pageable Limite de linhas da página.
+   * @return Os cards da página seguinte.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsCardDTO(n.id, n.title, n.slug, n.summary, "
+          + "n.featuredImageUrl, n.priority, n.publicationDate, a.name, a.id) "
+          + "FROM News n JOIN n.author a WHERE a.id IN :authorIds AND n.status = :status "
+          + "AND (n.publicationDate < :publicationDate "
+          + "OR (n.publicationDate = :publicationDate AND n.id < :id)) "
+          + "ORDER BY n.publicationDate DESC, n.id DESC")
+  List<NewsCardDTO> findAuthorsPageAfter(
+      @Param("authorIds") Collection<UUID> authorIds,
+      @Param("status") String status,
+      @Param("publicationDate") LocalDateTime publicationDate,
+      @Param("id") UUID id,
+      Pageable pageable);
+
+  /**
+   * Busca apenas a versão (datas de publicação e atualização) de uma notícia pelo ID.
+   *
+   * @param id O ID da notícia.
+   * @return Um Optional com a versão, se a notícia existir.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsVersionDTO(n.id, n.publicationDate, n.updateDate) "
+          + "FROM News n WHERE n.id = :id")
+  Optional<NewsVersionDTO> findVersionById(@Param("id") UUID id);
+
+  /**
+   * Busca apenas a versão (datas de publicação e atualização) de uma notícia pelo slug.
+   *
+   * @param slug O slug da notícia.
+   * @return Um Optional com a versão, se a notícia existir.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.dto.NewsVersionDTO(n.id, n.publicationDate, n.updateDate) "
+          + "FROM News n WHERE n.slug = :slug")
+  Optional<NewsVersionDTO> findVersionBySlug(@Param("slug") String slug);
 }
@@ -0,0 +1,11 @@
+package br.com.jcpm.api.repository;
+
+import br.com.jcpm.api.domain.entity.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório para as marcas d'água dos jobs de compactação.
+ */
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {}
@@ -1,9 +1,16 @@
 package br.com.jcpm.api.repository;
 
 import br.com.jcpm.api.domain.entity.User;
+import br.com.jcpm.api.domain.enums.UserType;
+import br.com.jcpm.api.security.UserPrincipal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +18,16 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+  /**
+   * Projeção com o número de usuários de um perfil.
+   */
+  interface UserTypeCount {
+    UserType getUserType();
+
+    long getTotal();
+  }
+
   Optional<User> findByUsername(String username);
 
   Optional<User> findByEmail(String email);
@@ -18,4 +35,90 @@ public interface UserRepository extends JpaRepository<User, UUID> {
   Boolean existsByUsername(String username);
 
   Boolean existsByEmail(String email);
+
+  /**
+   * Conta os usuários de cada perfil em uma única consulta agregada.
+   *
+   * @return Uma linha por perfil existente.
+   */
+  @Query("SELECT u.userType AS userType, COUNT(u) AS total FROM User u GROUP BY u.userType")
+  List<UserTypeCount> countGroupedByUserType();
+
+  /**
+   * Busca uma página de usuários de um perfil, dos mais recentes para os mais antigos.
+   *
+   * @param userType O perfil.
+   * @param pageable A página.
+   * @return Os usuários da página.
+   */
+  List<User> findByUserTypeOrderByRegistrationDateDesc(UserType userType, Pageable pageable);
+
+  /**
+   * Retorna a primeira página da busca administrativa, ordenada por (registrationDate, id).
+   * Filtros nulos são ignorados.
+   *
+   * @param userType O perfil, ou null.
+   * @param active O status da conta, ou null.
+   * @param registeredFrom O início do intervalo de cadastro (inclusivo), ou null.
+   * @param registeredTo O fim do intervalo de cadastro (exclusivo), ou null.
+   * @param pageable Limite de linhas da página.
+   * @return Os usuários da primeira página.
+   */
+  @Query(
+      "SELECT u FROM User u WHERE (:userType IS NULL OR u.userType = :userType) "
+          + "AND (:active IS NULL OR u.active = :active) "
+          + "AND (:registeredFrom IS NULL OR u.registrationDate >= :registeredFrom) "
+          + "AND (:registeredTo IS NULL OR u.registrationDate < :registeredTo) "
+          + "ORDER BY u.registrationDate DESC, u.id DESC")
+  List<User> searchFirstPage(
+      @Param("userType") UserType userType,
+      @Param("active") Boolean active,
+      @Param("registeredFrom") LocalDateTime registeredFrom,
+      @Param("registeredTo") LocalDateTime registeredTo,
+      Pageable pageable);
+
+  /**
+   * Retorna a página da busca administrativa posterior ao cursor (registrationDate, id).
+   *
+   * @param userType O perfil, ou null.
+   * @param active O status da conta, ou null.
+   * @param registeredFrom O início do intervalo de cadastro (inclusivo), ou null.
+   * @param registeredTo O fim do intervalo de cadastro (exclusivo), ou null.
+   * @param registrationDate A data de cadastro do último usuário já entregue.
+   * @param id O ID do último usuário já entregue.
+   * @param pageable Limite de linhas da página.
+   * @return Os usuários da página seguinte.
+   */
+  @Query(
+      "SELECT u FROM User u WHERE (:userType IS NULL OR u.userType = :userType) "
+          + "AND (:active IS NULL OR u.active = :active) "
+          + "AND (:registeredFrom IS NULL OR u.registrationDate >= :registeredFrom) "
+          + "AND (:registeredTo IS NULL OR u.registrationDate < :registeredTo) "
+          + "AND (u.registrationDate < :registrationDate "
+          + "OR (u.registrationDate = :registrationDate AND u.id < :id)) "
+          + "ORDER BY u.registrationDate DESC, u.id DESC")
+  List<User> searchPageAfter(
+      @Param("userType") UserType userType,
+      @Param("active") Boolean active,
+      @Param("registeredFrom") LocalDateTime registeredFrom,
+      @Param("registeredTo") LocalDateTime registeredTo,
+      @Param("registrationDate") LocalDateTime registrationDate,
+      @Param("id") UUID id,
+      Pageable pageable);
+
+  /**
+   * Busca apenas os dados necessários para autenticar requisições, sem o hash de senha.
+   *
+   * @param username O nome de usuário.
+   * @return O principal do usuário, se existir.
+   */
+  @Query(
+      "SELECT new br.com.jcpm.api.security.UserPrincipal(u.id, u.username, u.userType, u.active) "
+          + "FROM User u WHERE u.username = :username")
+  Optional<UserPrincipal> findPrincipalByUsername(@Param("username") String username);
+
+  @Query(
+      "SELECT new br.com.jcpm.api.security.UserPrincipal(u.id, u.username, u.userType, u.active) "
+          + "FROM User u WHERE u.id = :id")
+  Optional<UserPrincipal> findPrincipalById(@Param("id") UUID id);
 }
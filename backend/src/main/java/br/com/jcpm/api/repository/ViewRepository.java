@@ -1,6 +1,7 @@
 package br.com.jcpm.api.repository;
 
 import br.com.jcpm.api.domain.entity.View;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -24,14 +25,17 @@ public interface ViewRepository extends JpaRepository<View, UUID> {
   long countByNewsId(UUID newsId);
 
   /**
-   * Agrupa as visualizações por dia para uma notícia específica.
+   * Agrupa por dia as visualizações de uma notícia registradas a partir de um instante. Usada
+   * para a cauda ainda não compactada nos agregados de visualizações.
    *
    * @param newsId O ID da notícia.
+   * @param since O instante inicial (inclusivo).
    * @return Uma lista de mapas, onde cada mapa contém a data e a contagem de visualizações.
    */
   @Query(
       "SELECT new map(FUNCTION('DATE', v.viewedAt) as date, COUNT(v) as views) "
-          + "FROM View v WHERE v.news.id = :newsId GROUP BY FUNCTION('DATE', v.viewedAt) "
-          + "ORDER BY FUNCTION('DATE', v.viewedAt) ASC")
-  List<Map<String, Object>> countViewsByDay(@Param("newsId") UUID newsId);
+          + "FROM View v WHERE v.news.id = :newsId AND v.viewedAt >= :since "
+          + "GROUP BY FUNCTION('DATE', v.viewedAt) ORDER BY FUNCTION('DATE', v.viewedAt) ASC")
+  List<Map<String, Object>> countViewsByDaySince(
+      @Param("newsId") UUID newsId, @Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package br.com.jcpm.api.repository;
+
+import br.com.jcpm.api.domain.entity.ViewRollup;
+import br.com.jcpm.api.domain.entity.ViewRollup.ViewRollupId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório para leitura dos agregados de visualizações por dia e hora.
+ */
+@Repository
+public interface ViewRollupRepository extends JpaRepository<ViewRollup, ViewRollupId> {
+
+  /**
+   * Soma os agregados horários de uma notícia por dia.
+   *
+   * @param newsId O ID da notícia.
+   * @return Uma lista de mapas com a data e a contagem de visualizações já compactadas.
+   */
+  @Query(
+      "SELECT new map(r.id.viewDay as date, SUM(r.viewCount) as views) "
+          + "FROM ViewRollup r WHERE r.id.newsId = :newsId GROUP BY r.id.viewDay "
+          + "ORDER BY r.id.viewDay ASC")
+  List<Map<String, Object>> sumViewsByDay(@Param("newsId") UUID newsId);
+}
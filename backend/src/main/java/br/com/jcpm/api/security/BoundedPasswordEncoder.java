@@ -0,0 +1,152 @@
+package br.com.jcpm.api.security;
+
+import br.com.jcpm.api.exception.ServiceBusyException;
+import br.com.jcpm.api.service.MetricsSource;
+import br.com.jcpm.api.util.LatencyHistogram;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder que executa o hash e a verificação de senhas (BCrypt) em um pool de threads
+ * dimensionado pelo número de CPUs, com fila limitada.
+ *
+ * <p>As threads de requisição apenas aguardam o resultado, de modo que uma rajada de logins não
+ * ocupa mais CPU que o pool. Quando a fila está cheia, ou a espera excede o limite configurado, a
+ * operação falha imediatamente com {@link ServiceBusyException} (503 com Retry-After).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MetricsSource {
+
+  private static final long RETRY_AFTER_SECONDS = 1;
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final int queueCapacity;
+  private final long maxWaitMillis;
+
+  private final LatencyHistogram queueWait = new LatencyHistogram();
+  private final LatencyHistogram hashTime = new LatencyHistogram();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+
+  /**
+   * Cria o encoder.
+   *
+   * @param delegate O encoder que faz o trabalho (ex: BCrypt).
+   * @param threads O número de threads de hash.
+   * @param queueCapacity O número máximo de operações aguardando uma thread.
+   * @param maxWaitMillis O tempo máximo que a requisição aguarda o resultado.
+   */
+  public BoundedPasswordEncoder(
+      PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMillis) {
+    this.delegate = delegate;
+    this.queueCapacity = queueCapacity;
+    this.maxWaitMillis = maxWaitMillis;
+    AtomicInteger sequence = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return execute(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return execute(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T execute(Callable<T> task) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future =
+          executor.submit(
+              () -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt);
+                try {
+                  return task.call();
+                } finally {
+                  hashTime.record(System.nanoTime() - startedAt);
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw busy();
+    }
+
+    try {
+      return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      timedOut.increment();
+      throw busy();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw busy();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Falha ao processar a senha", e.getCause());
+    }
+  }
+
+  private static ServiceBusyException busy() {
+    return new ServiceBusyException(
+        "Servidor ocupado. Tente novamente em instantes.", RETRY_AFTER_SECONDS);
+  }
+
+  /** Encerra o pool de hash. Chamado pelo Spring ao destruir o bean. */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "passwordHashing";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("threads", executor.getMaximumPoolSize());
+    metrics.put("active", executor.getActiveCount());
+    metrics.put("queued", executor.getQueue().size());
+    metrics.put("queueCapacity", queueCapacity);
+    metrics.put("rejected", rejected.sum());
+    metrics.put("timedOut", timedOut.sum());
+    metrics.put("queueWait", queueWait.snapshot());
+    metrics.put("hashTime", hashTime.snapshot());
+    return metrics;
+  }
+}
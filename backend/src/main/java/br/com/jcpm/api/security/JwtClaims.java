@@ -0,0 +1,43 @@
+package br.com.jcpm.api.security;
+
+import br.com.jcpm.api.domain.enums.UserType;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims de um token JWT cuja assinatura já foi verificada.
+ *
+ * @param subject O nome de usuário (subject) do token.
+ * @param userId O ID do usuário, ou null em tokens emitidos antes da inclusão do claim.
+ * @param role O perfil do usuário na emissão, ou null em tokens antigos.
+ * @param epoch A época de segurança do usuário na emissão.
+ * @param issuedAt O instante de emissão.
+ * @param expiresAt O instante de expiração.
+ */
+public record JwtClaims(
+    String subject,
+    UUID userId,
+    UserType role,
+    long epoch,
+    Instant issuedAt,
+    Instant expiresAt) {
+
+  /**
+   * Indica se o token já expirou.
+   *
+   * @param now O instante de referência.
+   * @return true se o token expirou.
+   */
+  public boolean isExpired(Instant now) {
+    return !expiresAt.isAfter(now);
+  }
+
+  /**
+   * Indica se o token traz os claims necessários para autenticar sem consultar o usuário.
+   *
+   * @return true se o ID e o perfil estão presentes.
+   */
+  public boolean isSelfContained() {
+    return userId != null && role != null;
+  }
+}
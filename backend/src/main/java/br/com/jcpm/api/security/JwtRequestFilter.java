@@ -1,17 +1,21 @@
 package br.com.jcpm.api.security;
 
-import br.com.jcpm.api.service.UserService;
-import io.jsonwebtoken.ExpiredJwtException;
+import br.com.jcpm.api.service.MetricsSource;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,14 +23,45 @@ import org.springframework.web.filter.OncePerRequestFilter;
 /**
  * Filtro que intercepta todas as requisições para validar o token JWT.
  * Executa uma vez por requisição.
+ *
+ * <p>Em {@code jwt.auth-mode=database} o usuário é resolvido pelo {@link PrincipalCache}. Em
+ * {@code jwt.auth-mode=stateless} o principal é montado apenas a partir dos claims verificados,
+ * e a revogação é feita comparando a época do token com a do {@link SecurityEpochService}; tokens
+ * antigos, sem os claims de ID e perfil, continuam passando pelo caminho com consulta.
  */
 @Component
-public class JwtRequestFilter extends OncePerRequestFilter {
+public class JwtRequestFilter extends OncePerRequestFilter implements MetricsSource {
 
-  @Autowired private UserService userService;
+  /** Modo de resolução do usuário autenticado. */
+  public enum AuthMode {
+    DATABASE,
+    STATELESS
+  }
+
+  @Autowired private PrincipalCache principalCache;
 
   @Autowired private JwtTokenProvider jwtTokenProvider;
 
+  @Autowired private SecurityEpochService securityEpochService;
+
+  @Value("${jwt.auth-mode:database}")
+  private String authModeName;
+
+  private AuthMode authMode;
+
+  private final LongAdder authenticated = new LongAdder();
+  private final LongAdder resolveNanos = new LongAdder();
+  private final LongAdder statelessResolved = new LongAdder();
+  private final LongAdder databaseFallbacks = new LongAdder();
+  private final LongAdder rejectedInvalid = new LongAdder();
+  private final LongAdder rejectedRevoked = new LongAdder();
+  private final LongAdder rejectedUser = new LongAdder();
+
+  @PostConstruct
+  void init() {
+    authMode = AuthMode.valueOf(authModeName.trim().toUpperCase(Locale.ROOT));
+  }
+
   /**
    * Processa a requisição, extrai e valida o token JWT, e configura o contexto de segurança.
    *
@@ -43,36 +78,80 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     final String requestTokenHeader = request.getHeader("Authorization");
 
-    String username = null;
-    String jwtToken = null;
-
-    if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-      jwtToken = requestTokenHeader.substring(7);
-      try {
-        username = jwtTokenProvider.extractUsername(jwtToken);
-      } catch (IllegalArgumentException e) {
-        logger.warn("Unable to get JWT Token");
-      } catch (ExpiredJwtException e) {
-        logger.warn("JWT Token has expired");
-      }
-    }
-
-    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      try {
-        UserDetails userDetails = this.userService.loadUserByUsername(username);
-
-        if (jwtTokenProvider.validateToken(jwtToken, userDetails)) {
+    if (requestTokenHeader != null
+        && requestTokenHeader.startsWith("Bearer ")
+        && SecurityContextHolder.getContext().getAuthentication() == null) {
+      long start = System.nanoTime();
+      // A assinatura é verificada uma única vez; os claims resultantes já garantem a validade
+      Optional<JwtClaims> claims = jwtTokenProvider.parse(requestTokenHeader.substring(7));
+      if (claims.isEmpty()) {
+        rejectedInvalid.increment();
+        logger.warn("Invalid or expired JWT Token");
+      } else {
+        Optional<UserPrincipal> principal = resolvePrincipal(claims.get());
+        if (principal.isPresent()) {
           UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
               new UsernamePasswordAuthenticationToken(
-                  userDetails, null, userDetails.getAuthorities());
+                  principal.get(), null, principal.get().authorities());
           usernamePasswordAuthenticationToken.setDetails(
               new WebAuthenticationDetailsSource().buildDetails(request));
           SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+          authenticated.increment();
+          resolveNanos.add(System.nanoTime() - start);
         }
-      } catch (UsernameNotFoundException e) {
-        logger.error("User not found with username: " + username);
       }
     }
     chain.doFilter(request, response);
   }
+
+  private Optional<UserPrincipal> resolvePrincipal(JwtClaims claims) {
+    if (authMode == AuthMode.STATELESS && claims.isSelfContained()) {
+      if (claims.epoch() < securityEpochService.currentEpoch(claims.userId())) {
+        rejectedRevoked.increment();
+        logger.warn("Revoked JWT Token for user: " + claims.subject());
+        return Optional.empty();
+      }
+      statelessResolved.increment();
+      return Optional.of(
+          new UserPrincipal(claims.userId(), claims.subject(), claims.role(), true));
+    }
+
+    if (authMode == AuthMode.STATELESS) {
+      databaseFallbacks.increment();
+    }
+    String username = claims.subject();
+    Optional<UserPrincipal> principal = principalCache.get(username);
+    if (principal.isEmpty()) {
+      rejectedUser.increment();
+      logger.error("User not found with username: " + username);
+      return Optional.empty();
+    }
+    if (!principal.get().active()) {
+      rejectedUser.increment();
+      logger.warn("Inactive user: " + username);
+      return Optional.empty();
+    }
+    return principal;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "authentication";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    long count = authenticated.sum();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("mode", authMode.name().toLowerCase(Locale.ROOT));
+    metrics.put("authenticated", count);
+    // Tempo médio entre a leitura do cabeçalho e o principal pronto, para comparar os modos
+    metrics.put("averageResolveMicros", count == 0 ? 0 : resolveNanos.sum() / count / 1000);
+    metrics.put("statelessResolved", statelessResolved.sum());
+    metrics.put("databaseFallbacks", databaseFallbacks.sum());
+    metrics.put("rejectedInvalid", rejectedInvalid.sum());
+    metrics.put("rejectedRevoked", rejectedRevoked.sum());
+    metrics.put("rejectedUser", rejectedUser.sum());
+    return metrics;
+  }
 }
@@ -1,24 +1,48 @@
 package br.com.jcpm.api.security;
 
+import br.com.jcpm.api.domain.entity.User;
+import br.com.jcpm.api.domain.enums.UserType;
+import br.com.jcpm.api.service.MetricsSource;
+import br.com.jcpm.api.util.WeightedLruCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 /**
  * Utilitário para operações relacionadas a tokens JWT, como geração, validação e extração de
  * informações.
+ *
+ * <p>A chave de assinatura e o parser são criados uma única vez. Tokens verificados recentemente
+ * podem ser guardados em um cache limitado, indexado pelo SHA-256 do token, para que requisições
+ * repetidas com o mesmo token não repitam a verificação da assinatura.
  */
 @Component
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MetricsSource {
+
+  private static final String CLAIM_USER_ID = "uid";
+  private static final String CLAIM_ROLE = "role";
+  private static final String CLAIM_EPOCH = "epoch";
+
+  private final SecurityEpochService securityEpochService;
 
   @Value("${jwt.secret}")
   private String secret;
@@ -26,76 +50,93 @@ public class JwtTokenProvider {
   @Value("${jwt.expiration}")
   private Long expiration;
 
-  /**
-   * Extrai o nome de usuário (subject) de um token JWT.
-   *
-   * @param token O token JWT.
-   * @return O nome de usuário contido no token.
-   */
-  public String extractUsername(String token) {
-    return extractClaim(token, Claims::getSubject);
+  @Value("${jwt.verified-cache.max-entries:10000}")
+  private int verifiedCacheMaxEntries;
+
+  private Key signingKey;
+  private JwtParser parser;
+  private WeightedLruCache<String, JwtClaims> verifiedTokens;
+
+  private final LongAdder verifications = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  public JwtTokenProvider(SecurityEpochService securityEpochService) {
+    this.securityEpochService = securityEpochService;
   }
 
-  /**
-   * Extrai a data de expiração de um token JWT.
-   *
-   * @param token O token JWT.
-   * @return A data de expiração.
-   */
-  public Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    verifiedTokens = new WeightedLruCache<>(verifiedCacheMaxEntries, verifiedCacheMaxEntries);
   }
 
   /**
-   * Extrai uma informação específica (claim) de um token JWT usando uma função resolver.
+   * Verifica a assinatura e a validade de um token e extrai seus claims.
    *
    * @param token O token JWT.
-   * @param claimsResolver A função que extrai o claim desejado.
-   * @param <T> O tipo do claim a ser retornado.
-   * @return O claim extraído.
+   * @return Os claims, ou vazio se o token for inválido, malformado ou expirado.
    */
-  public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
+  public Optional<JwtClaims> parse(String token) {
+    String digest = digest(token);
+    JwtClaims cached = verifiedTokens.get(digest);
+    if (cached != null) {
+      if (!cached.isExpired(Instant.now())) {
+        return Optional.of(cached);
+      }
+      verifiedTokens.invalidate(digest);
+      return Optional.empty();
+    }
+
+    verifications.increment();
+    Claims claims;
+    try {
+      claims = parser.parseClaimsJws(token).getBody();
+    } catch (JwtException | IllegalArgumentException e) {
+      rejected.increment();
+      return Optional.empty();
+    }
+    if (claims.getSubject() == null || claims.getExpiration() == null) {
+      rejected.increment();
+      return Optional.empty();
+    }
+    JwtClaims verified;
+    try {
+      verified = toJwtClaims(claims);
+    } catch (IllegalArgumentException e) {
+      rejected.increment();
+      return Optional.empty();
+    }
+    verifiedTokens.put(digest, verified, 1);
+    return Optional.of(verified);
   }
 
-  /**
-   * Gera um novo token JWT para um usuário.
-   *
-   * @param userDetails Os detalhes do usuário para quem o token será gerado.
-   * @return O token JWT como uma string.
-   */
-  public String generateToken(UserDetails userDetails) {
-    Map<String, Object> claims = new HashMap<>();
-    return createToken(claims, userDetails.getUsername());
+  private static JwtClaims toJwtClaims(Claims claims) {
+    String userId = claims.get(CLAIM_USER_ID, String.class);
+    String role = claims.get(CLAIM_ROLE, String.class);
+    Number epoch = claims.get(CLAIM_EPOCH, Number.class);
+    return new JwtClaims(
+        claims.getSubject(),
+        userId != null ? UUID.fromString(userId) : null,
+        role != null ? UserType.valueOf(role) : null,
+        epoch != null ? epoch.longValue() : 0,
+        claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+        claims.getExpiration().toInstant());
   }
 
   /**
-   * Valida um token JWT.
+   * Gera um novo token JWT para um usuário, incluindo seu ID, perfil e época de segurança atual
+   * para que o token possa ser validado sem consultar o banco.
    *
-   * @param token O token a ser validado.
-   * @param userDetails Os detalhes do usuário para comparação.
-   * @return true se o token for válido, false caso contrário.
+   * @param user O usuário para quem o token será gerado.
+   * @return O token JWT como uma string.
    */
-  public Boolean validateToken(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-  }
-
-  private Key getSigningKey() {
-    return Keys.hmacShaKeyFor(secret.getBytes());
-  }
-
-  private Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
-  }
-
-  private Boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  public String generateToken(User user) {
+    Map<String, Object> claims = new HashMap<>();
+    claims.put(CLAIM_USER_ID, user.getId().toString());
+    claims.put(CLAIM_ROLE, user.getUserType().name());
+    claims.put(CLAIM_EPOCH, securityEpochService.currentEpoch(user.getId()));
+    return createToken(claims, user.getUsername());
   }
 
   private String createToken(Map<String, Object> claims, String subject) {
@@ -104,7 +145,30 @@ public class JwtTokenProvider {
         .setSubject(subject)
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
+
+  private static String digest(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "jwt";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("signatureVerifications", verifications.sum());
+    metrics.put("rejected", rejected.sum());
+    metrics.put("verifiedCache", verifiedTokens.stats());
+    return metrics;
+  }
 }
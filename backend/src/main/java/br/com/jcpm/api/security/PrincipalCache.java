@@ -0,0 +1,121 @@
+package br.com.jcpm.api.security;
+
+import br.com.jcpm.api.repository.UserRepository;
+import br.com.jcpm.api.service.MetricsSource;
+import br.com.jcpm.api.util.WeightedLruCache;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache limitado, com expiração, dos principais autenticados por nome de usuário.
+ *
+ * <p>Evita a consulta à tabela {@code users} em cada requisição autenticada. As alterações feitas
+ * por {@code UserService} invalidam a entrada do usuário imediatamente; alterações feitas por
+ * outras instâncias ou diretamente no banco ficam visíveis em no máximo {@code ttl-seconds}.
+ */
+@Component
+public class PrincipalCache implements MetricsSource {
+
+  private record Entry(UserPrincipal principal, long loadedAtMillis) {}
+
+  private final UserRepository userRepository;
+  private final long ttlMillis;
+  private final WeightedLruCache<String, Entry> cache;
+  private final Map<UUID, String> usernamesById = new ConcurrentHashMap<>();
+
+  // Incrementado a cada invalidação; descarta principais carregados durante uma invalidação
+  private final AtomicLong invalidationCount = new AtomicLong();
+
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder hitAgeMillis = new LongAdder();
+  private final LongAdder freshHits = new LongAdder();
+
+  public PrincipalCache(
+      UserRepository userRepository,
+      @Value("${security.principal-cache.max-entries:10000}") int maxEntries,
+      @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+    this.userRepository = userRepository;
+    this.ttlMillis = ttlSeconds * 1000;
+    this.cache =
+        new WeightedLruCache<>(
+            maxEntries,
+            maxEntries,
+            (username, entry) -> usernamesById.remove(entry.principal().id(), username));
+  }
+
+  /**
+   * Obtém o principal de um usuário, consultando o banco apenas se ausente ou expirado.
+   *
+   * @param username O nome de usuário.
+   * @return O principal, ou vazio se o usuário não existir.
+   */
+  public Optional<UserPrincipal> get(String username) {
+    long now = System.currentTimeMillis();
+    Entry entry = cache.get(username);
+    if (entry != null) {
+      long age = now - entry.loadedAtMillis();
+      if (age < ttlMillis) {
+        freshHits.increment();
+        hitAgeMillis.add(age);
+        return Optional.of(entry.principal());
+      }
+      expired.increment();
+    }
+
+    loads.increment();
+    long version = invalidationCount.get();
+    Optional<UserPrincipal> loaded = userRepository.findPrincipalByUsername(username);
+    loaded.ifPresentOrElse(
+        principal -> {
+          cache.put(username, new Entry(principal, now), 1);
+          usernamesById.put(principal.id(), username);
+          // A linha lida pode ser anterior à invalidação (ex: usuário recém-desativado)
+          if (invalidationCount.get() != version) {
+            cache.invalidate(username);
+          }
+        },
+        () -> cache.invalidate(username));
+    return loaded;
+  }
+
+  /**
+   * Remove o principal de um usuário do cache (ex: após alteração de perfil, status ou exclusão).
+   *
+   * @param userId O ID do usuário.
+   */
+  public void invalidate(UUID userId) {
+    invalidationCount.incrementAndGet();
+    String username = usernamesById.remove(userId);
+    if (username != null) {
+      cache.invalidate(username);
+      invalidations.increment();
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "principalCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    long fresh = freshHits.sum();
+    Map<String, Object> metrics = new LinkedHashMap<>(cache.stats());
+    metrics.put("ttlSeconds", ttlMillis / 1000);
+    metrics.put("loads", loads.sum());
+    metrics.put("expiredReloads", expired.sum());
+    metrics.put("invalidations", invalidations.sum());
+    // Idade média das entradas servidas: o atraso médio com que alterações externas são vistas
+    metrics.put("averageHitAgeMillis", fresh == 0 ? 0 : hitAgeMillis.sum() / fresh);
+    return metrics;
+  }
+}
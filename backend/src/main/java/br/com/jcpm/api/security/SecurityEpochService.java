@@ -0,0 +1,147 @@
+package br.com.jcpm.api.security;
+
+import br.com.jcpm.api.service.MetricsSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tabela em memória das épocas de segurança dos usuários, usada para revogar tokens no modo de
+ * autenticação sem estado.
+ *
+ * <p>Apenas usuários que já tiveram tokens revogados possuem linha em {@code
+ * user_security_epochs}, então a tabela completa cabe em memória. Cada instância a carrega na
+ * inicialização e depois lê periodicamente só as linhas alteradas desde a última leitura (com uma
+ * pequena sobreposição para tolerar commits fora de ordem). Uma revogação feita em outra instância
+ * passa a valer aqui em no máximo {@code refresh-interval-ms}.
+ */
+@Component
+public class SecurityEpochService implements MetricsSource, SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(SecurityEpochService.class);
+
+  private static final String BUMP_EPOCH =
+      "INSERT INTO user_security_epochs (user_id, epoch, updated_at) VALUES (?, 1, NOW(3)) "
+          + "ON DUPLICATE KEY UPDATE epoch = epoch + 1, updated_at = NOW(3)";
+
+  private record EpochRow(UUID userId, long epoch, LocalDateTime updatedAt) {}
+
+  private final JdbcTemplate jdbcTemplate;
+  private final long overlapMillis;
+
+  private final Map<UUID, Long> epochs = new ConcurrentHashMap<>();
+  private volatile LocalDateTime highWater;
+
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder refreshFailures = new LongAdder();
+  private final LongAdder bumps = new LongAdder();
+  private volatile long lastRefreshMillis;
+
+  public SecurityEpochService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${security.epochs.refresh-overlap-ms:2000}") long overlapMillis) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.overlapMillis = overlapMillis;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    load(null);
+  }
+
+  /**
+   * Retorna a época atual de um usuário.
+   *
+   * @param userId O ID do usuário.
+   * @return A época, ou 0 se o usuário nunca teve tokens revogados.
+   */
+  public long currentEpoch(UUID userId) {
+    return epochs.getOrDefault(userId, 0L);
+  }
+
+  /**
+   * Incrementa a época de um usuário, revogando todos os tokens emitidos até agora.
+   *
+   * @param userId O ID do usuário.
+   */
+  public void bump(UUID userId) {
+    jdbcTemplate.update(BUMP_EPOCH, userId.toString());
+    Long epoch =
+        jdbcTemplate.queryForObject(
+            "SELECT epoch FROM user_security_epochs WHERE user_id = ?",
+            Long.class,
+            userId.toString());
+    epochs.merge(userId, epoch, Math::max);
+    bumps.increment();
+  }
+
+  /** Lê as épocas alteradas desde a última leitura. */
+  @Scheduled(fixedDelayString = "${security.epochs.refresh-interval-ms:5000}")
+  public void refresh() {
+    LocalDateTime since = highWater;
+    try {
+      load(since == null ? null : since.minusNanos(overlapMillis * 1_000_000));
+    } catch (DataAccessException e) {
+      refreshFailures.increment();
+      log.error("Falha ao atualizar as épocas de segurança", e);
+    }
+  }
+
+  private synchronized void load(LocalDateTime since) {
+    List<EpochRow> rows =
+        since == null
+            ? jdbcTemplate.query(
+                "SELECT user_id, epoch, updated_at FROM user_security_epochs",
+                (rs, rowNum) -> mapRow(rs.getString(1), rs.getLong(2), rs.getTimestamp(3)))
+            : jdbcTemplate.query(
+                "SELECT user_id, epoch, updated_at FROM user_security_epochs "
+                    + "WHERE updated_at >= ?",
+                (rs, rowNum) -> mapRow(rs.getString(1), rs.getLong(2), rs.getTimestamp(3)),
+                Timestamp.valueOf(since));
+    LocalDateTime newHighWater = highWater;
+    for (EpochRow row : rows) {
+      epochs.merge(row.userId(), row.epoch(), Math::max);
+      if (newHighWater == null || row.updatedAt().isAfter(newHighWater)) {
+        newHighWater = row.updatedAt();
+      }
+    }
+    highWater = newHighWater;
+    refreshes.increment();
+    lastRefreshMillis = System.currentTimeMillis();
+  }
+
+  private static EpochRow mapRow(String userId, long epoch, Timestamp updatedAt) {
+    return new EpochRow(UUID.fromString(userId), epoch, updatedAt.toLocalDateTime());
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "securityEpochs";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("usersWithEpoch", epochs.size());
+    metrics.put("bumps", bumps.sum());
+    metrics.put("refreshes", refreshes.sum());
+    metrics.put("refreshFailures", refreshFailures.sum());
+    metrics.put(
+        "millisSinceLastRefresh",
+        lastRefreshMillis == 0 ? -1 : System.currentTimeMillis() - lastRefreshMillis);
+    return metrics;
+  }
+}
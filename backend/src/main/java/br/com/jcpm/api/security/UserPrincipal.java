@@ -0,0 +1,61 @@
+package br.com.jcpm.api.security;
+
+import br.com.jcpm.api.domain.enums.UserType;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Representação leve do usuário autenticado em uma requisição, sem o hash de senha nem os demais
+ * dados de perfil da entidade {@code User}.
+ *
+ * @param id O ID do usuário.
+ * @param username O nome de usuário.
+ * @param userType O perfil do usuário.
+ * @param active Se a conta está ativa.
+ */
+public record UserPrincipal(UUID id, String username, UserType userType, boolean active)
+    implements AuthenticatedPrincipal {
+
+  @Override
+  public String getName() {
+    return username;
+  }
+
+  public List<GrantedAuthority> authorities() {
+    return List.of(new SimpleGrantedAuthority("ROLE_" + userType.name()));
+  }
+
+  public boolean isAdmin() {
+    return userType == UserType.ADMIN;
+  }
+
+  /**
+   * Obtém o usuário autenticado da requisição atual.
+   *
+   * @return O principal, ou vazio para requisições anônimas.
+   */
+  public static Optional<UserPrincipal> current() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null
+        && authentication.getPrincipal() instanceof UserPrincipal principal) {
+      return Optional.of(principal);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Obtém o usuário autenticado da requisição atual, que deve existir.
+   *
+   * @return O principal.
+   * @throws IllegalStateException se a requisição não estiver autenticada.
+   */
+  public static UserPrincipal require() {
+    return current().orElseThrow(() -> new IllegalStateException("Requisição não autenticada"));
+  }
+}
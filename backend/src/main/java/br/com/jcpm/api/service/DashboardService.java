@@ -2,19 +2,18 @@ package br.com.jcpm.api.service;
 
 import br.com.jcpm.api.dto.CommentDTO;
 import br.com.jcpm.api.dto.DashboardStatsDTO;
-import br.com.jcpm.api.dto.DashboardStatsDTO.NewsMetric;
 import br.com.jcpm.api.dto.NewsDashboardDTO;
 import br.com.jcpm.api.exception.ResourceNotFoundException;
 import br.com.jcpm.api.repository.CommentRepository;
-import br.com.jcpm.api.repository.LikeRepository;
+import br.com.jcpm.api.repository.NewsCountersRepository;
 import br.com.jcpm.api.repository.NewsRepository;
-import br.com.jcpm.api.repository.UserRepository;
-import br.com.jcpm.api.repository.ViewRepository;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 /**
@@ -24,40 +23,40 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class DashboardService {
 
+  private static final int TOP_NEWS_LIMIT = 5;
+  private static final int RECENT_COMMENTS = 10;
+
   private final NewsRepository newsRepository;
-  private final ViewRepository viewRepository;
-  private final LikeRepository likeRepository;
   private final CommentRepository commentRepository;
-  private final UserRepository userRepository;
+  private final NewsCountersRepository newsCountersRepository;
+  private final EngagementCounterService engagementCounterService;
+  private final ViewRollupService viewRollupService;
+  private final UniqueReaderService uniqueReaderService;
 
   /**
    * Obtém estatísticas gerais para o dashboard do administrador.
    *
+   * <p>Os totais e os três rankings vêm da tabela de contadores desnormalizados, com uma consulta
+   * agregada e uma consulta limitada por ranking, independentemente do número de notícias.
+   *
    * @return DTO com as estatísticas agregadas.
    */
   public DashboardStatsDTO getAdminDashboardStats() {
-    // Implementação simplificada. Em produção, isso seria otimizado com queries diretas.
-    List<NewsMetric> mostViewed =
-        newsRepository.findAll().stream()
-            .map(
-                news ->
-                    NewsMetric.builder()
-                        .title(news.getTitle())
-                        .slug(news.getSlug())
-                        .count(viewRepository.countByNewsId(news.getId()))
-                        .build())
-            .sorted((a, b) -> Long.compare(b.getCount(), a.getCount()))
-            .limit(5)
-            .collect(Collectors.toList());
+    // Grava os deltas pendentes para que os rankings reflitam o engajamento mais recente
+    engagementCounterService.checkpoint();
+
+    Pageable topK = PageRequest.of(0, TOP_NEWS_LIMIT);
+    NewsCountersRepository.DashboardTotals totals = newsCountersRepository.findDashboardTotals();
 
     return DashboardStatsDTO.builder()
-        .totalNews(newsRepository.count())
-        .totalViews(viewRepository.count())
-        .totalLikes(likeRepository.count())
-        .totalComments(commentRepository.count())
-        .totalUsers(userRepository.count())
-        .mostViewedNews(mostViewed)
-        // Lógica similar para mostLikedNews e mostCommentedNews
+        .totalNews(totals.getTotalNews())
+        .totalViews(totals.getTotalViews())
+        .totalLikes(totals.getTotalLikes())
+        .totalComments(totals.getTotalComments())
+        .totalUsers(totals.getTotalUsers())
+        .mostViewedNews(newsCountersRepository.findMostViewed(topK))
+        .mostLikedNews(newsCountersRepository.findMostLiked(topK))
+        .mostCommentedNews(newsCountersRepository.findMostCommented(topK))
         .build();
   }
 
@@ -74,28 +73,22 @@ public class DashboardService {
             .orElseThrow(() -> new ResourceNotFoundException("Notícia não encontrada"));
 
     List<CommentDTO> recentComments =
-        commentRepository.findByNewsIdOrderByCreatedAtDesc(newsId).stream()
-            .limit(10)
-            .map(
-                comment ->
-                    CommentDTO.builder()
-                        .id(comment.getId())
-                        .content(comment.getContent())
-                        .createdAt(comment.getCreatedAt())
-                        .userId(comment.getUser().getId())
-                        .userName(comment.getUser().getName())
-                        .userProfileImageUrl(comment.getUser().getProfileImageUrl())
-                        .build())
-            .collect(Collectors.toList());
+        commentRepository.findPageByNewsId(newsId, PageRequest.of(0, RECENT_COMMENTS));
 
-    List<Map<String, Object>> viewsOverTime = viewRepository.countViewsByDay(newsId);
+    List<Map<String, Object>> viewsOverTime = viewRollupService.getDailyViews(newsId);
+    EngagementCounterService.EngagementTotals totals = engagementCounterService.getTotals(newsId);
+    LocalDate today = LocalDate.now();
 
     return NewsDashboardDTO.builder()
         .newsId(news.getId())
         .newsTitle(news.getTitle())
-        .totalViews(viewRepository.countByNewsId(newsId))
-        .totalLikes(likeRepository.countByNewsId(newsId))
-        .totalComments(commentRepository.countByNewsId(newsId))
+        .totalViews(totals.viewCount())
+        .totalLikes(totals.likeCount())
+        .totalComments(totals.commentCount())
+        .uniqueReaders(uniqueReaderService.countAllTimeReaders(newsId))
+        .uniqueReadersToday(uniqueReaderService.countUniqueReaders(newsId, today, today))
+        .uniqueReadersLast7Days(
+            uniqueReaderService.countUniqueReaders(newsId, today.minusDays(6), today))
         .viewsOverTime(viewsOverTime)
         .recentComments(recentComments)
         .build();
@@ -0,0 +1,307 @@
+package br.com.jcpm.api.service;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Armazena em memória os contadores de curtidas, comentários e visualizações de cada notícia.
+ *
+ * <p>Os contadores usam {@link LongAdder} (contadores distribuídos em células) para suportar
+ * incrementos concorrentes sem contenção, e as leituras dos totais são O(1) sem SQL. Os valores
+ * são carregados do banco na inicialização e os incrementos acumulados desde o último checkpoint
+ * são somados periodicamente na tabela desnormalizada {@code news_counters}.
+ *
+ * <p>Curtidas são a exceção: {@code EngagementService.toggleLike} atualiza {@code like_count} na
+ * mesma transação da curtida, e o valor absoluto resultante é copiado para a memória após o
+ * commit. O checkpoint não grava curtidas.
+ */
+@Service
+public class EngagementCounterService implements MetricsSource, SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(EngagementCounterService.class);
+
+  private static final String UPSERT_DELTA =
+      "INSERT IGNORE INTO news_counters "
+          + "(news_id, like_count, comment_count, view_count, updated_at) "
+          + "VALUES (?, GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0), ?) "
+          + "ON DUPLICATE KEY UPDATE comment_count = GREATEST(comment_count + ?, 0), "
+          + "view_count = GREATEST(view_count + ?, 0), updated_at = ?";
+
+  private static final String UPSERT_ABSOLUTE =
+      "INSERT IGNORE INTO news_counters "
+          + "(news_id, like_count, comment_count, view_count, updated_at) "
+          + "VALUES (?, ?, ?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE like_count = VALUES(like_count), "
+          + "comment_count = VALUES(comment_count), view_count = VALUES(view_count), "
+          + "updated_at = VALUES(updated_at)";
+
+  /**
+   * Totais de engajamento de uma notícia.
+   *
+   * @param likeCount O total de curtidas.
+   * @param commentCount O total de comentários.
+   * @param viewCount O total de visualizações.
+   */
+  public record EngagementTotals(long likeCount, long commentCount, long viewCount) {}
+
+  /** Um contador com o total corrente e o delta ainda não persistido. */
+  private static final class Counter {
+    private final LongAdder total = new LongAdder();
+    private final LongAdder pending = new LongAdder();
+
+    void add(long delta) {
+      total.add(delta);
+      pending.add(delta);
+    }
+  }
+
+  private static final class Counters {
+    private final AtomicLong likes = new AtomicLong();
+    private final Counter comments = new Counter();
+    private final Counter views = new Counter();
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean rebuildOnStartup;
+
+  private final Map<UUID, Counters> counters = new ConcurrentHashMap<>();
+  private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+  private final LongAdder checkpoints = new LongAdder();
+  private final LongAdder checkpointFailures = new LongAdder();
+  private volatile int lastCheckpointRows;
+
+  public EngagementCounterService(
+      JdbcTemplate jdbcTemplate,
+      @Value("${engagement.counters.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.rebuildOnStartup = rebuildOnStartup;
+  }
+
+  /**
+   * Carrega os contadores depois que todos os beans (inclusive o schema JPA) foram inicializados
+   * e antes de o servidor web começar a aceitar requisições.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    Long persisted = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_counters", Long.class);
+    if (rebuildOnStartup || persisted == null || persisted == 0) {
+      rebuildFromSource();
+    } else {
+      loadCheckpoint();
+    }
+    jdbcTemplate.query(
+        "SELECT id FROM noticias",
+        rs -> {
+          counters.computeIfAbsent(UUID.fromString(rs.getString(1)), id -> new Counters());
+        });
+    log.info("Contadores de engajamento carregados para {} notícias", counters.size());
+  }
+
+  private void loadCheckpoint() {
+    jdbcTemplate.query(
+        "SELECT news_id, like_count, comment_count, view_count FROM news_counters",
+        rs -> {
+          Counters seeded = counters.computeIfAbsent(
+              UUID.fromString(rs.getString(1)), id -> new Counters());
+          seeded.likes.set(rs.getLong(2));
+          seeded.comments.total.add(rs.getLong(3));
+          seeded.views.total.add(rs.getLong(4));
+        });
+  }
+
+  /** Recalcula os contadores a partir das tabelas de origem e regrava o checkpoint completo. */
+  private void rebuildFromSource() {
+    Map<UUID, long[]> totals = new HashMap<>();
+    String[] sources = {"likes", "comments", "views"};
+    for (int column = 0; column < sources.length; column++) {
+      int index = column;
+      jdbcTemplate.query(
+          "SELECT news_id, COUNT(*) FROM " + sources[column] + " GROUP BY news_id",
+          rs -> {
+            totals.computeIfAbsent(UUID.fromString(rs.getString(1)), id -> new long[3])[index] =
+                rs.getLong(2);
+          });
+    }
+
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> rows = new ArrayList<>(totals.size());
+    totals.forEach(
+        (newsId, values) -> {
+          Counters seeded = counters.computeIfAbsent(newsId, id -> new Counters());
+          seeded.likes.set(values[0]);
+          seeded.comments.total.add(values[1]);
+          seeded.views.total.add(values[2]);
+          rows.add(new Object[] {newsId.toString(), values[0], values[1], values[2], now});
+        });
+    jdbcTemplate.batchUpdate(UPSERT_ABSOLUTE, rows);
+  }
+
+  /**
+   * Registra uma notícia recém-criada com contadores zerados.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void register(UUID newsId) {
+    counters.computeIfAbsent(newsId, id -> new Counters());
+  }
+
+  /**
+   * Remove os contadores de uma notícia excluída.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void remove(UUID newsId) {
+    counters.remove(newsId);
+    dirty.remove(newsId);
+  }
+
+  /**
+   * Soma uma visualização. Apenas notícias conhecidas são contadas, para que IDs arbitrários
+   * enviados ao endpoint público não criem contadores.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void recordView(UUID newsId) {
+    Counters existing = counters.get(newsId);
+    if (existing != null) {
+      existing.views.add(1);
+      dirty.add(newsId);
+    }
+  }
+
+  /**
+   * Define o total de curtidas de uma notícia com o valor já gravado em {@code news_counters}.
+   *
+   * @param newsId O ID da notícia.
+   * @param likeCount O total de curtidas.
+   */
+  public void setLikes(UUID newsId, long likeCount) {
+    counters.computeIfAbsent(newsId, id -> new Counters()).likes.set(likeCount);
+  }
+
+  /**
+   * Soma (ou subtrai) comentários de uma notícia.
+   *
+   * @param newsId O ID da notícia.
+   * @param delta A variação.
+   */
+  public void addComments(UUID newsId, long delta) {
+    counters.computeIfAbsent(newsId, id -> new Counters()).comments.add(delta);
+    dirty.add(newsId);
+  }
+
+  /**
+   * Verifica se a notícia tem contadores, isto é, se existe.
+   *
+   * @param newsId O ID da notícia.
+   * @return true se a notícia for conhecida.
+   */
+  public boolean isKnown(UUID newsId) {
+    return counters.containsKey(newsId);
+  }
+
+  /**
+   * Retorna os totais de uma notícia sem acessar o banco.
+   *
+   * @param newsId O ID da notícia.
+   * @return Os totais (zerados se a notícia não for conhecida).
+   */
+  public EngagementTotals getTotals(UUID newsId) {
+    Counters existing = counters.get(newsId);
+    if (existing == null) {
+      return new EngagementTotals(0, 0, 0);
+    }
+    return new EngagementTotals(
+        existing.likes.get(), existing.comments.total.sum(), existing.views.total.sum());
+  }
+
+  /**
+   * Soma nos contadores persistidos os deltas acumulados desde o último checkpoint. Como apenas
+   * deltas são gravados, várias instâncias podem fazer checkpoint na mesma tabela.
+   */
+  @Scheduled(fixedDelayString = "${engagement.counters.checkpoint-interval-ms:5000}")
+  public synchronized void checkpoint() {
+    if (dirty.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<UUID> ids = new ArrayList<>();
+    List<long[]> deltas = new ArrayList<>();
+    List<Object[]> rows = new ArrayList<>();
+    for (UUID newsId : List.copyOf(dirty)) {
+      dirty.remove(newsId);
+      Counters existing = counters.get(newsId);
+      if (existing == null) {
+        continue;
+      }
+      long comments = existing.comments.pending.sumThenReset();
+      long views = existing.views.pending.sumThenReset();
+      if (comments == 0 && views == 0) {
+        continue;
+      }
+      ids.add(newsId);
+      deltas.add(new long[] {comments, views});
+      rows.add(new Object[] {newsId.toString(), 0, comments, views, now, comments, views, now});
+    }
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    try {
+      jdbcTemplate.batchUpdate(UPSERT_DELTA, rows);
+      checkpoints.increment();
+      lastCheckpointRows = rows.size();
+    } catch (DataAccessException e) {
+      checkpointFailures.increment();
+      log.error("Falha no checkpoint de {} contadores de engajamento", rows.size(), e);
+      for (int i = 0; i < ids.size(); i++) {
+        Counters existing = counters.get(ids.get(i));
+        if (existing != null) {
+          existing.comments.pending.add(deltas.get(i)[0]);
+          existing.views.pending.add(deltas.get(i)[1]);
+          dirty.add(ids.get(i));
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    checkpoint();
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "engagementCounters";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("trackedNews", counters.size());
+    metrics.put("dirty", dirty.size());
+    metrics.put("checkpoints", checkpoints.sum());
+    metrics.put("checkpointFailures", checkpointFailures.sum());
+    metrics.put("lastCheckpointRows", lastCheckpointRows);
+    return metrics;
+  }
+}
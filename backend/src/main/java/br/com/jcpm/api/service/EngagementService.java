@@ -1,66 +1,127 @@
 package br.com.jcpm.api.service;
 
 import br.com.jcpm.api.domain.entity.Comment;
-import br.com.jcpm.api.domain.entity.Like;
 import br.com.jcpm.api.domain.entity.News;
 import br.com.jcpm.api.domain.entity.User;
-import br.com.jcpm.api.domain.entity.View;
 import br.com.jcpm.api.dto.CommentDTO;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.EngagementStatsDTO;
+import br.com.jcpm.api.exception.BadRequestException;
 import br.com.jcpm.api.exception.ResourceNotFoundException;
 import br.com.jcpm.api.repository.CommentRepository;
-import br.com.jcpm.api.repository.LikeRepository;
 import br.com.jcpm.api.repository.NewsRepository;
-import br.com.jcpm.api.repository.ViewRepository;
+import br.com.jcpm.api.repository.UserRepository;
+import br.com.jcpm.api.security.UserPrincipal;
+import br.com.jcpm.api.service.ViewIngestionService.ViewEvent;
+import br.com.jcpm.api.util.AfterCommit;
+import br.com.jcpm.api.util.CursorCodec;
 import jakarta.servlet.http.HttpServletRequest;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Serviço que implementa a lógica de negócio para engajamento dos usuários.
  */
 @Service
 @RequiredArgsConstructor
-public class EngagementService {
+public class EngagementService implements MetricsSource {
+
+  private static final int MAX_PAGE_SIZE = 50;
+  private static final int MAX_BATCH_STATS = 100;
+  private static final int MAX_LIKE_ATTEMPTS = 3;
+  private static final int IN_CLAUSE_CHUNK = 500;
+
+  private static final String UPSERT_LIKE_COUNT =
+      "INSERT INTO news_counters "
+          + "(news_id, like_count, comment_count, view_count, updated_at) "
+          + "VALUES (?, GREATEST(?, 0), 0, 0, ?) "
+          + "ON DUPLICATE KEY UPDATE like_count = GREATEST(like_count + ?, 0), "
+          + "updated_at = VALUES(updated_at)";
+
+  /**
+   * Resultado da alternância de uma curtida.
+   *
+   * @param liked true se o usuário passou a curtir a notícia.
+   * @param likeCount O novo total de curtidas.
+   */
+  public record LikeToggle(boolean liked, long likeCount) {}
 
   private final NewsRepository newsRepository;
   private final CommentRepository commentRepository;
-  private final LikeRepository likeRepository;
-  private final ViewRepository viewRepository;
-  private final UserService userService;
+  private final UserRepository userRepository;
+  private final ViewIngestionService viewIngestionService;
+  private final ViewDedupService viewDedupService;
+  private final EngagementCounterService engagementCounterService;
+  private final LikeIndexService likeIndexService;
+  private final EngagementStreamService engagementStreamService;
+  private final TrendingService trendingService;
+  private final LiveTrafficService liveTrafficService;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  private final LongAdder likeToggles = new LongAdder();
+  private final LongAdder likeToggleNanos = new LongAdder();
+  private final LongAdder likeNoops = new LongAdder();
+  private final LongAdder likeRetries = new LongAdder();
 
   /**
-   * Registra a visualização de uma notícia.
+   * Registra a visualização de uma notícia. A visualização é apenas enfileirada para gravação em
+   * lote; nenhum acesso ao banco de dados é feito na thread da requisição. Repetições do mesmo
+   * leitor dentro da janela de deduplicação são aceitas, mas descartadas.
    *
    * @param newsId O ID da notícia.
    * @param request O HttpServletRequest para obter o IP e User-Agent.
+   * @return true se a visualização foi aceita, false se a fila de ingestão estava cheia (nada é
+   *     registrado, e a visualização pode ser reenviada).
+   * @throws ResourceNotFoundException se a notícia não existir.
    */
-  @Transactional
-  public void trackView(UUID newsId, HttpServletRequest request) {
-    News news =
-        newsRepository
-            .findById(newsId)
-            .orElseThrow(() -> new ResourceNotFoundException("Notícia não encontrada"));
-
-    User user =
-        userService
-            .findByUsername(SecurityContextHolder.getContext().getAuthentication().getName())
-            .orElse(null);
+  public boolean trackView(UUID newsId, HttpServletRequest request) {
+    // Verificado em memória: IDs arbitrários não chegam à deduplicação nem à fila de ingestão
+    if (!engagementCounterService.isKnown(newsId)) {
+      throw new ResourceNotFoundException("Notícia não encontrada");
+    }
+    UUID userId = UserPrincipal.current().map(UserPrincipal::id).orElse(null);
 
-    View view =
-        View.builder()
-            .news(news)
-            .user(user)
-            .ipAddress(request.getRemoteAddr())
-            .userAgent(request.getHeader("User-Agent"))
-            .build();
+    ViewEvent event =
+        new ViewEvent(
+            newsId,
+            userId,
+            request.getRemoteAddr(),
+            request.getHeader("User-Agent"),
+            LocalDateTime.now());
+    // Reserva a vaga antes da deduplicação: uma visualização recusada com a fila cheia não fica
+    // registrada no filtro, e a nova tentativa anunciada pelo 503 ainda é contada
+    if (!viewIngestionService.reserve()) {
+      return false;
+    }
+    if (!viewDedupService.firstWithinWindow(event)) {
+      viewIngestionService.release();
+      return true;
+    }
 
-    viewRepository.save(view);
+    viewIngestionService.enqueue(event);
+    engagementCounterService.recordView(newsId);
+    engagementStreamService.markChanged(newsId);
+    trendingService.recordView(newsId);
+    liveTrafficService.recordView(newsId);
+    return true;
   }
 
   /**
@@ -73,7 +134,9 @@ public class EngagementService {
   @Transactional
   public CommentDTO addComment(UUID newsId, String content) {
     User currentUser =
-        (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        userRepository
+            .findById(UserPrincipal.require().id())
+            .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
     News news =
         newsRepository
             .findById(newsId)
@@ -82,6 +145,12 @@ public class EngagementService {
     Comment comment =
         Comment.builder().content(content).user(currentUser).news(news).build();
     comment = commentRepository.save(comment);
+    AfterCommit.run(
+        () -> {
+          engagementCounterService.addComments(newsId, 1);
+          engagementStreamService.markChanged(newsId);
+          trendingService.recordComment(newsId, true);
+        });
 
     return CommentDTO.builder()
         .id(comment.getId())
@@ -94,24 +163,30 @@ public class EngagementService {
   }
 
   /**
-   * Obtém os comentários de uma notícia.
+   * Obtém uma página dos comentários de uma notícia, do mais recente para o mais antigo, paginando
+   * por keyset sobre (createdAt, id).
    *
    * @param newsId O ID da notícia.
-   * @return Uma lista de DTOs de comentários.
+   * @param cursor O cursor da página anterior, ou null para a primeira página.
+   * @param size O número de comentários desejado (máximo 50).
+   * @return A página de comentários e o cursor da próxima página.
+   * @throws BadRequestException se o cursor for inválido.
    */
-  public List<CommentDTO> getCommentsByNewsId(UUID newsId) {
-    return commentRepository.findByNewsIdOrderByCreatedAtDesc(newsId).stream()
-        .map(
-            comment ->
-                CommentDTO.builder()
-                    .id(comment.getId())
-                    .content(comment.getContent())
-                    .createdAt(comment.getCreatedAt())
-                    .userId(comment.getUser().getId())
-                    .userName(comment.getUser().getName())
-                    .userProfileImageUrl(comment.getUser().getProfileImageUrl())
-                    .build())
-        .collect(Collectors.toList());
+  public CursorPageDTO<CommentDTO> getComments(UUID newsId, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+    List<CommentDTO> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = commentRepository.findPageByNewsId(newsId, limit);
+    } else {
+      CursorCodec.Cursor position = CursorCodec.decode(cursor);
+      rows =
+          commentRepository.findPageByNewsIdAfter(
+              newsId, position.timestamp(), position.id(), limit);
+    }
+    return CursorPageDTO.fromRows(
+        rows, pageSize, comment -> CursorCodec.encode(comment.getCreatedAt(), comment.getId()));
   }
 
   /**
@@ -122,57 +197,219 @@ public class EngagementService {
   @Transactional
   public void deleteComment(UUID commentId) {
     // Adicionar lógica de permissão (apenas o dono do comentário ou admin pode deletar)
-    commentRepository.deleteById(commentId);
+    commentRepository
+        .findById(commentId)
+        .ifPresent(
+            comment -> {
+              commentRepository.delete(comment);
+              UUID newsId = comment.getNews().getId();
+              AfterCommit.run(
+                  () -> {
+                    engagementCounterService.addComments(newsId, -1);
+                    engagementStreamService.markChanged(newsId);
+                    trendingService.recordComment(newsId, false);
+                  });
+            });
   }
 
   /**
    * Alterna o estado de curtida de um usuário em uma notícia.
    *
+   * <p>A alternância não lê antes de escrever: um INSERT IGNORE pela chave única (user_id,
+   * news_id) cria a curtida e, se nada foi inserido, um DELETE remove a existente. Inserir primeiro
+   * evita que o DELETE de uma chave ausente tome um gap lock que bloquearia o INSERT seguinte.
+   * Cliques concorrentes do mesmo usuário ainda podem travar um ao outro no InnoDB; a transação
+   * escolhida como vítima é repetida, até {@value #MAX_LIKE_ATTEMPTS} tentativas. O contador em
+   * {@code news_counters} é atualizado na mesma transação, e o novo total é lido pela chave
+   * primária, sem contar a tabela {@code likes}.
+   *
    * @param newsId O ID da notícia.
-   * @return A nova contagem de curtidas.
+   * @return O novo estado e a nova contagem de curtidas.
+   * @throws ResourceNotFoundException se a notícia não existir.
+   */
+  public LikeToggle toggleLike(UUID newsId) {
+    long start = System.nanoTime();
+    UUID userId = UserPrincipal.require().id();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        LikeToggle toggle = transactionTemplate.execute(status -> applyToggle(userId, newsId));
+        likeToggles.increment();
+        likeToggleNanos.add(System.nanoTime() - start);
+        return toggle;
+      } catch (PessimisticLockingFailureException e) {
+        // Deadlock ou espera de bloqueio esgotada; a transação já foi desfeita
+        if (attempt == MAX_LIKE_ATTEMPTS) {
+          throw e;
+        }
+        likeRetries.increment();
+      }
+    }
+  }
+
+  private LikeToggle applyToggle(UUID userId, UUID newsId) {
+    String news = newsId.toString();
+    int inserted =
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO likes (id, created_at, user_id, news_id) VALUES (?, ?, ?, ?)",
+            UUID.randomUUID().toString(),
+            Timestamp.valueOf(LocalDateTime.now()),
+            userId.toString(),
+            news);
+    long delta;
+    boolean liked;
+    if (inserted > 0) {
+      delta = 1;
+      liked = true;
+    } else {
+      int removed =
+          jdbcTemplate.update(
+              "DELETE FROM likes WHERE user_id = ? AND news_id = ?", userId.toString(), news);
+      // Nada removido: outro clique concorrente já descurtiu, ou a notícia não existe
+      if (removed == 0 && !newsRepository.existsById(newsId)) {
+        throw new ResourceNotFoundException("Notícia não encontrada");
+      }
+      delta = -removed;
+      liked = false;
+    }
+
+    if (delta != 0) {
+      jdbcTemplate.update(
+          UPSERT_LIKE_COUNT, news, delta, Timestamp.valueOf(LocalDateTime.now()), delta);
+    } else {
+      likeNoops.increment();
+    }
+    Long stored =
+        jdbcTemplate.query(
+            "SELECT like_count FROM news_counters WHERE news_id = ?",
+            rs -> rs.next() ? rs.getLong(1) : 0L,
+            news);
+    long likeCount = stored == null ? 0 : stored;
+    AfterCommit.run(
+        () -> {
+          engagementCounterService.setLikes(newsId, likeCount);
+          if (delta != 0) {
+            likeIndexService.recordToggle(userId, newsId, delta > 0);
+            engagementStreamService.markChanged(newsId);
+            trendingService.recordLike(newsId, delta > 0);
+          }
+        });
+    return new LikeToggle(liked, likeCount);
+  }
+
+  /**
+   * Remove as curtidas e os comentários de um usuário prestes a ser excluído, descontando-os dos
+   * contadores das notícias. A exclusão em cascata do banco removeria as linhas sem ajustar {@code
+   * news_counters} nem os totais em memória, que ficariam acima do real.
+   *
+   * @param userId O ID do usuário.
    */
   @Transactional
-  public long toggleLike(UUID newsId) {
-    User currentUser =
-        (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-    News news =
-        newsRepository
-            .findById(newsId)
-            .orElseThrow(() -> new ResourceNotFoundException("Notícia não encontrada"));
+  public void removeUserEngagement(UUID userId) {
+    String user = userId.toString();
+    List<String> likedNews =
+        jdbcTemplate.queryForList(
+            "SELECT news_id FROM likes WHERE user_id = ? FOR UPDATE", String.class, user);
+    Map<UUID, Long> commentsByNews = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT news_id, COUNT(*) FROM comments WHERE user_id = ? GROUP BY news_id FOR UPDATE",
+        rs -> {
+          commentsByNews.put(UUID.fromString(rs.getString(1)), rs.getLong(2));
+        },
+        user);
+    if (likedNews.isEmpty() && commentsByNews.isEmpty()) {
+      return;
+    }
 
-    likeRepository
-        .findByUserIdAndNewsId(currentUser.getId(), newsId)
-        .ifPresentOrElse(
-            likeRepository::delete,
-            () -> {
-              Like newLike = Like.builder().user(currentUser).news(news).build();
-              likeRepository.save(newLike);
-            });
+    jdbcTemplate.update("DELETE FROM likes WHERE user_id = ?", user);
+    jdbcTemplate.update("DELETE FROM comments WHERE user_id = ?", user);
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        UPSERT_LIKE_COUNT,
+        likedNews.stream().map(news -> new Object[] {news, -1, now, -1}).toList());
+    Map<UUID, Long> likeCounts = new HashMap<>();
+    for (int from = 0; from < likedNews.size(); from += IN_CLAUSE_CHUNK) {
+      List<String> chunk =
+          likedNews.subList(from, Math.min(from + IN_CLAUSE_CHUNK, likedNews.size()));
+      jdbcTemplate.query(
+          "SELECT news_id, like_count FROM news_counters WHERE news_id IN ("
+              + String.join(",", Collections.nCopies(chunk.size(), "?"))
+              + ")",
+          rs -> {
+            likeCounts.put(UUID.fromString(rs.getString(1)), rs.getLong(2));
+          },
+          chunk.toArray());
+    }
 
-    return likeRepository.countByNewsId(newsId);
+    AfterCommit.run(
+        () -> {
+          likeCounts.forEach(engagementCounterService::setLikes);
+          commentsByNews.forEach(
+              (newsId, count) -> engagementCounterService.addComments(newsId, -count));
+          Set<UUID> changed = new HashSet<>(likeCounts.keySet());
+          changed.addAll(commentsByNews.keySet());
+          changed.forEach(engagementStreamService::markChanged);
+        });
   }
 
   /**
    * Obtém as estatísticas de engajamento (curtidas e comentários) de uma notícia.
    *
    * @param newsId O ID da notícia.
-   * @return Um mapa com as contagens.
+   * @return As contagens e o estado de curtida do usuário autenticado.
+   */
+  public EngagementStatsDTO getEngagementStats(UUID newsId) {
+    return getEngagementStats(List.of(newsId)).get(newsId);
+  }
+
+  /**
+   * Obtém as estatísticas de engajamento de várias notícias de uma vez (ex: uma página do feed).
+   * Os totais vêm dos contadores em memória, e as curtidas do usuário autenticado vêm da
+   * interseção com o seu bitmap no {@link LikeIndexService}.
+   *
+   * @param newsIds Os IDs das notícias (no máximo 100, repetições são ignoradas).
+   * @return As estatísticas de cada notícia, na ordem informada.
+   * @throws BadRequestException se forem informadas mais de 100 notícias.
    */
-  public Map<String, Object> getEngagementStats(UUID newsId) {
-    long likeCount = likeRepository.countByNewsId(newsId);
-    long commentCount = commentRepository.countByNewsId(newsId);
-    boolean isLikedByCurrentUser = false;
-
-    Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-    if (principal instanceof User) {
-      User currentUser = (User) principal;
-      isLikedByCurrentUser =
-          likeRepository.findByUserIdAndNewsId(currentUser.getId(), newsId).isPresent();
+  public Map<UUID, EngagementStatsDTO> getEngagementStats(List<UUID> newsIds) {
+    Set<UUID> ids = new LinkedHashSet<>(newsIds);
+    if (ids.size() > MAX_BATCH_STATS) {
+      throw new BadRequestException(
+          "No máximo " + MAX_BATCH_STATS + " notícias por consulta");
+    }
+    Set<UUID> liked =
+        UserPrincipal.current()
+            .filter(principal -> !ids.isEmpty())
+            .map(principal -> likeIndexService.likedAmong(principal.id(), ids))
+            .orElse(Set.of());
+
+    Map<UUID, EngagementStatsDTO> stats = new LinkedHashMap<>();
+    for (UUID newsId : ids) {
+      EngagementCounterService.EngagementTotals totals = engagementCounterService.getTotals(newsId);
+      stats.put(
+          newsId,
+          EngagementStatsDTO.builder()
+              .likeCount(totals.likeCount())
+              .commentCount(totals.commentCount())
+              .likedByCurrentUser(liked.contains(newsId))
+              .build());
     }
+    return stats;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "likes";
+  }
 
-    return Map.of(
-        "likeCount", likeCount,
-        "commentCount", commentCount,
-        "isLikedByCurrentUser", isLikedByCurrentUser);
+  @Override
+  public Map<String, Object> getMetrics() {
+    long toggles = likeToggles.sum();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("toggles", toggles);
+    // Tempo médio da alternância até o commit, para acompanhar a contenção em notícias muito curtidas
+    metrics.put("averageToggleMicros", toggles == 0 ? 0 : likeToggleNanos.sum() / toggles / 1000);
+    metrics.put("concurrentNoops", likeNoops.sum());
+    metrics.put("lockRetries", likeRetries.sum());
+    return metrics;
   }
-}
\ No newline at end of file
+}
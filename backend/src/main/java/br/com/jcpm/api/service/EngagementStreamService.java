@@ -0,0 +1,304 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.exception.ServiceBusyException;
+import br.com.jcpm.api.service.EngagementCounterService.EngagementTotals;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Distribui por Server-Sent Events os totais de engajamento das notícias abertas pelos leitores.
+ *
+ * <p>As conexões são respostas assíncronas do servlet: enquanto ociosas, não ocupam thread. As
+ * escritas de curtidas, comentários e visualizações apenas marcam a notícia como alterada, e a
+ * cada intervalo os totais de cada notícia alterada são lidos uma vez do {@link
+ * EngagementCounterService} e enviados a todos os inscritos, de modo que rajadas viram uma única
+ * mensagem. O envio é feito em virtual threads; cada inscrito guarda apenas a última mensagem
+ * pendente, então um cliente lento recebe o estado mais recente em vez de acumular uma fila.
+ */
+@Service
+public class EngagementStreamService implements MetricsSource {
+
+  private static final String ENGAGEMENT_EVENT = "engagement";
+
+  /** Mensagem a enviar; {@code data} nulo indica um heartbeat (comentário SSE). */
+  private record Message(String data) {}
+
+  private static final Message HEARTBEAT = new Message(null);
+
+  /** Inscritos de uma notícia e a marca de alteração desde o último envio. */
+  private static final class Topic {
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+  }
+
+  private final class Subscriber {
+    private final UUID newsId;
+    private final String clientKey;
+    private final SseEmitter emitter;
+    private final AtomicReference<Message> pending = new AtomicReference<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Subscriber(UUID newsId, String clientKey, SseEmitter emitter) {
+      this.newsId = newsId;
+      this.clientKey = clientKey;
+      this.emitter = emitter;
+    }
+
+    void offer(Message message) {
+      pending.set(message);
+      schedule();
+    }
+
+    void offerHeartbeat() {
+      if (pending.compareAndSet(null, HEARTBEAT)) {
+        schedule();
+      }
+    }
+
+    private void schedule() {
+      if (!closed.get() && sending.compareAndSet(false, true)) {
+        try {
+          senders.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+          sending.set(false);
+        }
+      }
+    }
+
+    private void drain() {
+      try {
+        Message message;
+        while (!closed.get() && (message = pending.getAndSet(null)) != null) {
+          send(message);
+        }
+      } finally {
+        sending.set(false);
+      }
+      // Uma mensagem pode ter chegado entre o último getAndSet e a liberação
+      if (pending.get() != null) {
+        schedule();
+      }
+    }
+
+    private void send(Message message) {
+      try {
+        if (message.data() == null) {
+          emitter.send(SseEmitter.event().comment(""));
+        } else {
+          emitter.send(
+              SseEmitter.event()
+                  .name(ENGAGEMENT_EVENT)
+                  .data(message.data(), MediaType.APPLICATION_JSON));
+          messagesSent.increment();
+        }
+      } catch (IOException | IllegalStateException e) {
+        // Cliente desconectado ou resposta já concluída
+        sendFailures.increment();
+        unsubscribe(this);
+        emitter.completeWithError(e);
+      }
+    }
+  }
+
+  private final EngagementCounterService engagementCounterService;
+  private final long emitterTimeoutMs;
+  private final int maxSubscribers;
+  private final int maxPerClient;
+
+  private final Map<UUID, Topic> topics = new ConcurrentHashMap<>();
+  private final AtomicInteger subscriberCount = new AtomicInteger();
+  private final Map<String, Integer> clientConnections = new ConcurrentHashMap<>();
+  private final ExecutorService senders =
+      Executors.newThreadPerTaskExecutor(
+          Thread.ofVirtual().name("engagement-stream-", 0).factory());
+
+  private final LongAdder updatesMarked = new LongAdder();
+  private final LongAdder updatesFlushed = new LongAdder();
+  private final LongAdder messagesSent = new LongAdder();
+  private final LongAdder sendFailures = new LongAdder();
+  private final LongAdder rejectedSubscriptions = new LongAdder();
+  private final LongAdder rejectedPerClient = new LongAdder();
+
+  public EngagementStreamService(
+      EngagementCounterService engagementCounterService,
+      @Value("${engagement.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+      @Value("${engagement.stream.max-subscribers:10000}") int maxSubscribers,
+      @Value("${engagement.stream.max-per-client:20}") int maxPerClient) {
+    this.engagementCounterService = engagementCounterService;
+    this.emitterTimeoutMs = emitterTimeoutMs;
+    this.maxSubscribers = maxSubscribers;
+    this.maxPerClient = maxPerClient;
+  }
+
+  /**
+   * Abre uma conexão de atualizações para uma notícia. Os totais atuais são enviados logo após a
+   * inscrição.
+   *
+   * @param newsId O ID da notícia.
+   * @param clientKey Identifica o cliente (ex: o IP) para o limite de conexões por cliente.
+   * @return O emissor SSE da conexão, ou vazio se a notícia não existir.
+   * @throws ServiceBusyException se o limite de conexões simultâneas, total ou do cliente, foi
+   *     atingido.
+   */
+  public Optional<SseEmitter> subscribe(UUID newsId, String clientKey) {
+    if (!engagementCounterService.isKnown(newsId)) {
+      return Optional.empty();
+    }
+    if (!acquireClientSlot(clientKey)) {
+      rejectedPerClient.increment();
+      throw new ServiceBusyException("Limite de conexões de atualização do cliente atingido", 30);
+    }
+    if (subscriberCount.incrementAndGet() > maxSubscribers) {
+      subscriberCount.decrementAndGet();
+      releaseClientSlot(clientKey);
+      rejectedSubscriptions.increment();
+      throw new ServiceBusyException("Limite de conexões de atualização atingido", 5);
+    }
+
+    SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+    Subscriber subscriber = new Subscriber(newsId, clientKey, emitter);
+    topics.compute(
+        newsId,
+        (id, topic) -> {
+          Topic current = topic != null ? topic : new Topic();
+          current.subscribers.add(subscriber);
+          return current;
+        });
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(() -> unsubscribe(subscriber));
+    emitter.onError(error -> unsubscribe(subscriber));
+
+    subscriber.offer(snapshot(newsId));
+    return Optional.of(emitter);
+  }
+
+  /**
+   * Marca uma notícia como alterada. Chamado após curtidas, comentários e visualizações; não faz
+   * nada se a notícia não tiver inscritos.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void markChanged(UUID newsId) {
+    Topic topic = topics.get(newsId);
+    if (topic != null) {
+      topic.dirty.set(true);
+      updatesMarked.increment();
+    }
+  }
+
+  /** Envia os totais de cada notícia alterada desde o último intervalo. */
+  @Scheduled(fixedDelayString = "${engagement.stream.flush-interval-ms:1000}")
+  public void flush() {
+    topics.forEach(
+        (newsId, topic) -> {
+          if (topic.dirty.getAndSet(false)) {
+            Message message = snapshot(newsId);
+            topic.subscribers.forEach(subscriber -> subscriber.offer(message));
+            updatesFlushed.increment();
+          }
+        });
+  }
+
+  /**
+   * Envia um comentário vazio aos inscritos sem mensagem pendente, mantendo as conexões vivas em
+   * proxies e detectando clientes desconectados.
+   */
+  @Scheduled(fixedDelayString = "${engagement.stream.heartbeat-interval-ms:25000}")
+  public void heartbeat() {
+    topics.values().forEach(topic -> topic.subscribers.forEach(Subscriber::offerHeartbeat));
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    topics.values().forEach(topic -> topic.subscribers.forEach(s -> s.emitter.complete()));
+    senders.shutdown();
+    senders.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  private Message snapshot(UUID newsId) {
+    EngagementTotals totals = engagementCounterService.getTotals(newsId);
+    return new Message(
+        "{\"likeCount\":"
+            + totals.likeCount()
+            + ",\"commentCount\":"
+            + totals.commentCount()
+            + ",\"viewCount\":"
+            + totals.viewCount()
+            + "}");
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    if (!subscriber.closed.compareAndSet(false, true)) {
+      return;
+    }
+    subscriberCount.decrementAndGet();
+    releaseClientSlot(subscriber.clientKey);
+    topics.computeIfPresent(
+        subscriber.newsId,
+        (id, topic) -> {
+          topic.subscribers.remove(subscriber);
+          return topic.subscribers.isEmpty() ? null : topic;
+        });
+  }
+
+  /** Reserva uma das conexões permitidas ao cliente. */
+  private boolean acquireClientSlot(String clientKey) {
+    boolean[] acquired = {false};
+    clientConnections.compute(
+        clientKey,
+        (key, count) -> {
+          int current = count == null ? 0 : count;
+          if (current >= maxPerClient) {
+            return count;
+          }
+          acquired[0] = true;
+          return current + 1;
+        });
+    return acquired[0];
+  }
+
+  private void releaseClientSlot(String clientKey) {
+    clientConnections.computeIfPresent(clientKey, (key, count) -> count > 1 ? count - 1 : null);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "engagementStream";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("subscribers", subscriberCount.get());
+    metrics.put("topics", topics.size());
+    metrics.put("updatesMarked", updatesMarked.sum());
+    // Mensagens por notícia efetivamente montadas após a coalescência
+    metrics.put("updatesFlushed", updatesFlushed.sum());
+    metrics.put("messagesSent", messagesSent.sum());
+    metrics.put("sendFailures", sendFailures.sum());
+    metrics.put("clients", clientConnections.size());
+    metrics.put("rejectedSubscriptions", rejectedSubscriptions.sum());
+    metrics.put("rejectedPerClient", rejectedPerClient.sum());
+    return metrics;
+  }
+}
@@ -0,0 +1,471 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.UserSummaryDTO;
+import br.com.jcpm.api.exception.BadRequestException;
+import br.com.jcpm.api.repository.FollowRepository;
+import br.com.jcpm.api.repository.UserRepository;
+import br.com.jcpm.api.util.AfterCommit;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Grafo de seguidores mantido em memória, com as escritas persistidas na tabela {@code follows}.
+ *
+ * <p>Cada usuário recebe um ordinal inteiro, e as relações são guardadas em duas listas de
+ * adjacência de ordinais ({@code int[]}): quem o usuário segue, ordenada, e quem o segue, sem
+ * ordem. As contagens são o tamanho das listas (O(1)) e a verificação de uma relação é uma busca
+ * binária, ambas sem SQL. O grafo é carregado na inicialização e atualizado incrementalmente após
+ * o commit de cada escrita. As listas têm capacidade de sobra e crescem pelo dobro, então seguir
+ * alguém não copia a lista inteira; um novo seguidor é acrescentado ao fim e um seguidor removido
+ * dá lugar ao último. Os ordinais de usuários excluídos são reaproveitados. As listagens
+ * paginadas, que precisam dos dados dos usuários, vão ao banco.
+ */
+@Service
+public class FollowGraphService implements MetricsSource, SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(FollowGraphService.class);
+
+  private static final int[] EMPTY = new int[0];
+  private static final int MAX_PAGE_SIZE = 100;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final FollowRepository followRepository;
+  private final UserRepository userRepository;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<UUID, Integer> ordinals = new HashMap<>();
+  private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+  private UUID[] users = new UUID[1024];
+  // As listas podem ter capacidade de sobra; o tamanho real fica em followingSizes/followerSizes
+  private int[][] following = new int[1024][];
+  private int[][] followers = new int[1024][];
+  private int[] followingSizes = new int[1024];
+  private int[] followerSizes = new int[1024];
+  private int userCount;
+  private long edgeCount;
+
+  public FollowGraphService(
+      JdbcTemplate jdbcTemplate, FollowRepository followRepository, UserRepository userRepository) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.followRepository = followRepository;
+    this.userRepository = userRepository;
+  }
+
+  /** Carrega todas as relações em uma única varredura da tabela. */
+  @Override
+  public void afterSingletonsInstantiated() {
+    long start = System.currentTimeMillis();
+    List<long[]> edges = new ArrayList<>();
+    long[][] chunk = {new long[8192]};
+    int[] filled = {0};
+    lock.writeLock().lock();
+    try {
+      jdbcTemplate.query(
+          connection -> {
+            PreparedStatement statement =
+                connection.prepareStatement(
+                    "SELECT follower_id, followed_id FROM follows",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+          },
+          rs -> {
+            int follower = ordinalOf(UUID.fromString(rs.getString(1)));
+            int followed = ordinalOf(UUID.fromString(rs.getString(2)));
+            if (filled[0] == chunk[0].length) {
+              edges.add(chunk[0]);
+              chunk[0] = new long[chunk[0].length];
+              filled[0] = 0;
+            }
+            chunk[0][filled[0]++] = ((long) follower << 32) | followed;
+          });
+      edges.add(Arrays.copyOf(chunk[0], filled[0]));
+
+      // Duas passadas: contagem dos graus e preenchimento das listas com o tamanho exato
+      int[] outDegree = new int[userCount];
+      int[] inDegree = new int[userCount];
+      for (long[] block : edges) {
+        for (long edge : block) {
+          outDegree[(int) (edge >>> 32)]++;
+          inDegree[(int) edge]++;
+        }
+      }
+      for (int i = 0; i < userCount; i++) {
+        following[i] = outDegree[i] == 0 ? EMPTY : new int[outDegree[i]];
+        followers[i] = inDegree[i] == 0 ? EMPTY : new int[inDegree[i]];
+        outDegree[i] = 0;
+        inDegree[i] = 0;
+      }
+      for (long[] block : edges) {
+        for (long edge : block) {
+          int follower = (int) (edge >>> 32);
+          int followed = (int) edge;
+          following[follower][outDegree[follower]++] = followed;
+          followers[followed][inDegree[followed]++] = follower;
+          edgeCount++;
+        }
+      }
+      for (int i = 0; i < userCount; i++) {
+        Arrays.sort(following[i]);
+        followingSizes[i] = outDegree[i];
+        followerSizes[i] = inDegree[i];
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info(
+        "Grafo de seguidores carregado: {} usuários, {} relações em {} ms",
+        userCount,
+        edgeCount,
+        System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Faz um usuário seguir outro. Seguir alguém já seguido não tem efeito.
+   *
+   * @param followerId O ID de quem segue.
+   * @param followedId O ID de quem é seguido.
+   * @throws BadRequestException se o usuário tentar seguir a si mesmo.
+   * @throws UsernameNotFoundException se o usuário seguido não existir.
+   */
+  @Transactional
+  public void follow(UUID followerId, UUID followedId) {
+    if (followerId.equals(followedId)) {
+      throw new BadRequestException("Um usuário não pode seguir a si mesmo");
+    }
+    if (!userRepository.existsById(followedId)) {
+      throw new UsernameNotFoundException("Usuário não encontrado com ID: " + followedId);
+    }
+    int inserted =
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO follows (follower_id, followed_id) VALUES (?, ?)",
+            followerId.toString(),
+            followedId.toString());
+    if (inserted > 0) {
+      AfterCommit.run(() -> addEdge(followerId, followedId));
+    }
+  }
+
+  /**
+   * Desfaz a relação de seguir. Deixar de seguir quem não é seguido não tem efeito.
+   *
+   * @param followerId O ID de quem segue.
+   * @param followedId O ID de quem é seguido.
+   */
+  @Transactional
+  public void unfollow(UUID followerId, UUID followedId) {
+    int deleted =
+        jdbcTemplate.update(
+            "DELETE FROM follows WHERE follower_id = ? AND followed_id = ?",
+            followerId.toString(),
+            followedId.toString());
+    if (deleted > 0) {
+      AfterCommit.run(() -> removeEdge(followerId, followedId));
+    }
+  }
+
+  /**
+   * Remove um usuário excluído do grafo. As linhas em {@code follows} são removidas pelo banco
+   * (ON DELETE CASCADE).
+   *
+   * @param userId O ID do usuário.
+   */
+  public void removeUser(UUID userId) {
+    lock.writeLock().lock();
+    try {
+      Integer ordinal = ordinals.remove(userId);
+      if (ordinal == null) {
+        return;
+      }
+      for (int i = 0; i < followingSizes[ordinal]; i++) {
+        unlinkFollower(following[ordinal][i], ordinal);
+        edgeCount--;
+      }
+      for (int i = 0; i < followerSizes[ordinal]; i++) {
+        unlinkFollowing(followers[ordinal][i], ordinal);
+        edgeCount--;
+      }
+      // Nenhuma lista referencia mais o ordinal, que pode ser dado a um novo usuário
+      users[ordinal] = null;
+      following[ordinal] = EMPTY;
+      followers[ordinal] = EMPTY;
+      followingSizes[ordinal] = 0;
+      followerSizes[ordinal] = 0;
+      freeOrdinals.push(ordinal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Verifica se um usuário segue outro, sem consultar o banco.
+   *
+   * @param followerId O ID do potencial seguidor.
+   * @param followedId O ID do usuário potencialmente seguido.
+   * @return true se a relação existe.
+   */
+  public boolean isFollowing(UUID followerId, UUID followedId) {
+    lock.readLock().lock();
+    try {
+      Integer follower = ordinals.get(followerId);
+      Integer followed = ordinals.get(followedId);
+      return follower != null
+          && followed != null
+          && Arrays.binarySearch(following[follower], 0, followingSizes[follower], followed) >= 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Retorna o número de seguidores de um usuário.
+   *
+   * @param userId O ID do usuário.
+   * @return A contagem de seguidores.
+   */
+  public long countFollowers(UUID userId) {
+    lock.readLock().lock();
+    try {
+      Integer ordinal = ordinals.get(userId);
+      return ordinal == null ? 0 : followerSizes[ordinal];
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Retorna o número de usuários seguidos por um usuário.
+   *
+   * @param userId O ID do usuário.
+   * @return A contagem de usuários seguidos.
+   */
+  public long countFollowing(UUID userId) {
+    lock.readLock().lock();
+    try {
+      Integer ordinal = ordinals.get(userId);
+      return ordinal == null ? 0 : followingSizes[ordinal];
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Retorna os IDs de todos os seguidores de um usuário.
+   *
+   * @param userId O ID do usuário.
+   * @return Os IDs dos seguidores.
+   */
+  public List<UUID> getFollowerIds(UUID userId) {
+    return resolve(userId, true);
+  }
+
+  /**
+   * Retorna os IDs de todos os usuários seguidos por um usuário.
+   *
+   * @param userId O ID do usuário.
+   * @return Os IDs dos usuários seguidos.
+   */
+  public List<UUID> getFollowingIds(UUID userId) {
+    return resolve(userId, false);
+  }
+
+  private List<UUID> resolve(UUID userId, boolean ofFollowers) {
+    lock.readLock().lock();
+    try {
+      Integer ordinal = ordinals.get(userId);
+      if (ordinal == null) {
+        return List.of();
+      }
+      int[] row = ofFollowers ? followers[ordinal] : following[ordinal];
+      int size = ofFollowers ? followerSizes[ordinal] : followingSizes[ordinal];
+      List<UUID> ids = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        ids.add(users[row[i]]);
+      }
+      return ids;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Lista os seguidores de um usuário, paginando por cursor.
+   *
+   * @param userId O ID do usuário.
+   * @param cursor O cursor da página anterior, ou null para a primeira página.
+   * @param size O número de usuários desejado.
+   * @return A página de seguidores.
+   */
+  public CursorPageDTO<UserSummaryDTO> listFollowers(UUID userId, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    List<UserSummaryDTO> rows =
+        followRepository.findFollowers(
+            userId, decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+    return CursorPageDTO.fromRows(rows, pageSize, user -> user.getId().toString());
+  }
+
+  /**
+   * Lista os usuários seguidos por um usuário, paginando por cursor.
+   *
+   * @param userId O ID do usuário.
+   * @param cursor O cursor da página anterior, ou null para a primeira página.
+   * @param size O número de usuários desejado.
+   * @return A página de usuários seguidos.
+   */
+  public CursorPageDTO<UserSummaryDTO> listFollowing(UUID userId, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    List<UserSummaryDTO> rows =
+        followRepository.findFollowing(
+            userId, decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+    return CursorPageDTO.fromRows(rows, pageSize, user -> user.getId().toString());
+  }
+
+  private static UUID decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      return UUID.fromString(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Cursor inválido", e);
+    }
+  }
+
+  private void addEdge(UUID followerId, UUID followedId) {
+    lock.writeLock().lock();
+    try {
+      int follower = ordinalOf(followerId);
+      int followed = ordinalOf(followedId);
+      int size = followingSizes[follower];
+      int position = Arrays.binarySearch(following[follower], 0, size, followed);
+      if (position >= 0) {
+        return;
+      }
+      following[follower] = insert(following[follower], size, -position - 1, followed);
+      followingSizes[follower] = size + 1;
+      followers[followed] =
+          insert(followers[followed], followerSizes[followed], followerSizes[followed], follower);
+      followerSizes[followed]++;
+      edgeCount++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeEdge(UUID followerId, UUID followedId) {
+    lock.writeLock().lock();
+    try {
+      Integer follower = ordinals.get(followerId);
+      Integer followed = ordinals.get(followedId);
+      if (follower == null || followed == null || !unlinkFollowing(follower, followed)) {
+        return;
+      }
+      unlinkFollower(followed, follower);
+      edgeCount--;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Retorna o ordinal do usuário, criando-o se necessário. Requer o bloqueio de escrita. */
+  private int ordinalOf(UUID userId) {
+    Integer existing = ordinals.get(userId);
+    if (existing != null) {
+      return existing;
+    }
+    Integer free = freeOrdinals.poll();
+    if (free == null && userCount == users.length) {
+      int capacity = users.length * 2;
+      users = Arrays.copyOf(users, capacity);
+      following = Arrays.copyOf(following, capacity);
+      followers = Arrays.copyOf(followers, capacity);
+      followingSizes = Arrays.copyOf(followingSizes, capacity);
+      followerSizes = Arrays.copyOf(followerSizes, capacity);
+    }
+    int ordinal = free != null ? free : userCount++;
+    users[ordinal] = userId;
+    following[ordinal] = EMPTY;
+    followers[ordinal] = EMPTY;
+    ordinals.put(userId, ordinal);
+    return ordinal;
+  }
+
+  /**
+   * Insere um valor na posição informada de uma lista com {@code size} elementos. A lista só é
+   * copiada quando está cheia, e então dobra de capacidade.
+   *
+   * @return A lista com o valor, que pode ser a própria lista recebida.
+   */
+  private static int[] insert(int[] row, int size, int position, int value) {
+    int[] target = size < row.length ? row : Arrays.copyOf(row, Math.max(4, size * 2));
+    System.arraycopy(target, position, target, position + 1, size - position);
+    target[position] = value;
+    return target;
+  }
+
+  /** Remove um usuário seguido da lista ordenada de quem segue. Requer o bloqueio de escrita. */
+  private boolean unlinkFollowing(int follower, int followed) {
+    int[] row = following[follower];
+    int size = followingSizes[follower];
+    int position = Arrays.binarySearch(row, 0, size, followed);
+    if (position < 0) {
+      return false;
+    }
+    System.arraycopy(row, position + 1, row, position, size - position - 1);
+    followingSizes[follower] = size - 1;
+    return true;
+  }
+
+  /** Remove um seguidor da lista, sem ordem, de quem é seguido. Requer o bloqueio de escrita. */
+  private void unlinkFollower(int followed, int follower) {
+    int[] row = followers[followed];
+    int last = followerSizes[followed] - 1;
+    for (int i = last; i >= 0; i--) {
+      if (row[i] == follower) {
+        row[i] = row[last];
+        followerSizes[followed] = last;
+        return;
+      }
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "followGraph";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    lock.readLock().lock();
+    try {
+      Map<String, Object> metrics = new LinkedHashMap<>();
+      metrics.put("users", ordinals.size());
+      metrics.put("edges", edgeCount);
+      // Cada relação ocupa um int em cada uma das duas listas de adjacência
+      metrics.put("adjacencyBytes", edgeCount * 2 * Integer.BYTES);
+      return metrics;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.util.CompactBitmap;
+import br.com.jcpm.api.util.WeightedLruCache;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Índice em memória das notícias curtidas por cada usuário ativo.
+ *
+ * <p>As curtidas de um usuário ficam em um {@link CompactBitmap} sobre os ordinais de {@link
+ * NewsOrdinalService}, carregado do banco na primeira consulta e mantido em um cache limitado por
+ * número de usuários e por bytes. As alternâncias confirmadas atualizam o bitmap em cache no
+ * lugar. Verificar quais notícias de uma página o usuário curtiu é uma interseção de bitmaps.
+ * Notícias excluídas perdem o ordinal, então bits antigos ainda presentes em cache nunca são
+ * reportados.
+ */
+@Service
+public class LikeIndexService implements MetricsSource {
+
+  // Versões por faixa de usuários: descartam bitmaps carregados durante uma alternância concorrente
+  private static final int VERSION_STRIPES = 64;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NewsOrdinalService newsOrdinalService;
+  private final WeightedLruCache<UUID, CompactBitmap> bitmaps;
+  private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder lookupNanos = new LongAdder();
+  private final LongAdder updates = new LongAdder();
+
+  public LikeIndexService(
+      JdbcTemplate jdbcTemplate,
+      NewsOrdinalService newsOrdinalService,
+      @Value("${likes.bitmap-cache.max-entries:20000}") int maxEntries,
+      @Value("${likes.bitmap-cache.max-bytes:67108864}") long maxBytes) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.newsOrdinalService = newsOrdinalService;
+    this.bitmaps = new WeightedLruCache<>(maxEntries, maxBytes);
+  }
+
+  /**
+   * Retorna, dentre as notícias informadas, as que o usuário curtiu.
+   *
+   * @param userId O ID do usuário.
+   * @param newsIds Os IDs das notícias.
+   * @return Os IDs das notícias curtidas.
+   */
+  public Set<UUID> likedAmong(UUID userId, Collection<UUID> newsIds) {
+    // Carrega antes de resolver os ordinais: a carga atribui ordinais às notícias curtidas
+    CompactBitmap liked = bitmapOf(userId);
+    CompactBitmap page = new CompactBitmap();
+    Map<Integer, UUID> idsByOrdinal = new HashMap<>();
+    for (UUID newsId : newsIds) {
+      int ordinal = newsOrdinalService.find(newsId);
+      if (ordinal != NewsOrdinalService.NO_ORDINAL) {
+        page.add(ordinal);
+        idsByOrdinal.put(ordinal, newsId);
+      }
+    }
+    if (page.isEmpty()) {
+      return Set.of();
+    }
+
+    long start = System.nanoTime();
+    CompactBitmap hits;
+    synchronized (liked) {
+      hits = page.and(liked);
+    }
+    Set<UUID> result = new HashSet<>();
+    hits.forEach(ordinal -> result.add(idsByOrdinal.get(ordinal)));
+    lookups.increment();
+    lookupNanos.add(System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * Aplica uma alternância de curtida já confirmada ao bitmap do usuário, se estiver em cache.
+   *
+   * @param userId O ID do usuário.
+   * @param newsId O ID da notícia.
+   * @param liked true se a notícia passou a ser curtida, false se a curtida foi removida.
+   */
+  public void recordToggle(UUID userId, UUID newsId, boolean liked) {
+    versions.incrementAndGet(stripeOf(userId));
+    CompactBitmap bitmap = bitmaps.get(userId);
+    if (bitmap == null) {
+      return;
+    }
+    int ordinal = newsOrdinalService.ordinalOf(newsId);
+    long weight;
+    synchronized (bitmap) {
+      if (liked) {
+        bitmap.add(ordinal);
+      } else {
+        bitmap.remove(ordinal);
+      }
+      weight = bitmap.sizeInBytes();
+    }
+    // Não reinsere: o bitmap pode ter sido invalidado (ex: exclusão do usuário) durante a alteração
+    bitmaps.reweigh(userId, bitmap, weight);
+    updates.increment();
+  }
+
+  /**
+   * Remove o bitmap de um usuário do cache (ex: após sua exclusão).
+   *
+   * @param userId O ID do usuário.
+   */
+  public void invalidate(UUID userId) {
+    versions.incrementAndGet(stripeOf(userId));
+    bitmaps.invalidate(userId);
+  }
+
+  private CompactBitmap bitmapOf(UUID userId) {
+    CompactBitmap cached = bitmaps.get(userId);
+    if (cached != null) {
+      return cached;
+    }
+
+    int stripe = stripeOf(userId);
+    long version = versions.get(stripe);
+    loads.increment();
+    CompactBitmap loaded = new CompactBitmap();
+    jdbcTemplate.query(
+        "SELECT news_id FROM likes WHERE user_id = ?",
+        rs -> {
+          loaded.add(newsOrdinalService.ordinalOf(UUID.fromString(rs.getString(1))));
+        },
+        userId.toString());
+    bitmaps.put(userId, loaded, loaded.sizeInBytes());
+    if (versions.get(stripe) != version) {
+      bitmaps.invalidate(userId);
+    }
+    return loaded;
+  }
+
+  private static int stripeOf(UUID userId) {
+    return Math.floorMod(userId.hashCode(), VERSION_STRIPES);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "likeIndex";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    long lookupCount = lookups.sum();
+    Map<String, Object> metrics = new LinkedHashMap<>(bitmaps.stats());
+    metrics.put("loads", loads.sum());
+    metrics.put("updates", updates.sum());
+    metrics.put("lookups", lookupCount);
+    // Tempo médio da interseção de uma página com o bitmap do usuário
+    metrics.put(
+        "averageLookupNanos", lookupCount == 0 ? 0 : lookupNanos.sum() / lookupCount);
+    return metrics;
+  }
+}
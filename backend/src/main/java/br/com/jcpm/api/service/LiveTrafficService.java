@@ -0,0 +1,143 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.dto.LiveTrafficDTO;
+import br.com.jcpm.api.util.MinuteRingBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Visualizações por minuto das notícias com tráfego recente, para o dashboard da redação.
+ *
+ * <p>Cada notícia ativa tem um {@link MinuteRingBuffer} com as últimas 24 horas (1440 contadores
+ * primitivos, ~11 KB), criado na primeira visualização. Registrar uma visualização não aloca nem
+ * acessa o banco. Buffers sem visualizações há mais que o tempo ocioso configurado são removidos, e
+ * o número de buffers simultâneos é limitado.
+ */
+@Service
+public class LiveTrafficService implements MetricsSource {
+
+  private static final int RETAINED_MINUTES = 24 * 60;
+
+  private final EngagementCounterService engagementCounterService;
+  private final int maxArticles;
+  private final long idleEvictionMinutes;
+
+  private final Map<UUID, MinuteRingBuffer> buffers = new ConcurrentHashMap<>();
+  private final LongAdder recorded = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder evicted = new LongAdder();
+
+  public LiveTrafficService(
+      EngagementCounterService engagementCounterService,
+      @Value("${live-traffic.max-articles:2000}") int maxArticles,
+      @Value("${live-traffic.idle-eviction-minutes:120}") long idleEvictionMinutes) {
+    this.engagementCounterService = engagementCounterService;
+    this.maxArticles = maxArticles;
+    this.idleEvictionMinutes = idleEvictionMinutes;
+  }
+
+  /**
+   * Soma uma visualização ao minuto atual da notícia.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void recordView(UUID newsId) {
+    MinuteRingBuffer buffer = buffers.get(newsId);
+    if (buffer == null) {
+      // IDs desconhecidos não criam buffers; o limite protege a memória
+      if (!engagementCounterService.isKnown(newsId) || buffers.size() >= maxArticles) {
+        dropped.increment();
+        return;
+      }
+      buffer = buffers.computeIfAbsent(newsId, id -> new MinuteRingBuffer(RETAINED_MINUTES));
+    }
+    buffer.increment(currentMinute());
+    recorded.increment();
+  }
+
+  /**
+   * Retorna as visualizações por minuto de uma notícia, terminando no minuto atual.
+   *
+   * @param newsId O ID da notícia.
+   * @param minutes O número de minutos (de 1 a 1440).
+   * @return A série, ou vazio se a notícia não existir. Notícias sem tráfego recente têm a série
+   *     zerada.
+   */
+  public Optional<LiveTrafficDTO> getViewsPerMinute(UUID newsId, int minutes) {
+    if (!engagementCounterService.isKnown(newsId)) {
+      return Optional.empty();
+    }
+    int size = Math.max(1, Math.min(minutes, RETAINED_MINUTES));
+    long endMinute = currentMinute();
+    long[] series = new long[size];
+    MinuteRingBuffer buffer = buffers.get(newsId);
+    if (buffer != null) {
+      buffer.copyTo(endMinute, series);
+    }
+
+    long total = 0;
+    for (long views : series) {
+      total += views;
+    }
+    LocalDateTime from =
+        LocalDateTime.ofInstant(
+            Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(endMinute - size + 1)),
+            ZoneId.systemDefault());
+    return Optional.of(
+        LiveTrafficDTO.builder()
+            .newsId(newsId)
+            .from(from)
+            .viewsPerMinute(series)
+            .totalViews(total)
+            .build());
+  }
+
+  /**
+   * Remove os buffers das notícias sem visualizações recentes e das notícias excluídas.
+   */
+  @Scheduled(fixedDelayString = "${live-traffic.eviction-interval-ms:60000}")
+  public void evictCold() {
+    long threshold = currentMinute() - idleEvictionMinutes;
+    for (UUID newsId : buffers.keySet()) {
+      buffers.computeIfPresent(
+          newsId,
+          (id, buffer) -> {
+            if (buffer.lastMinute() >= threshold && engagementCounterService.isKnown(id)) {
+              return buffer;
+            }
+            evicted.increment();
+            return null;
+          });
+    }
+  }
+
+  private static long currentMinute() {
+    return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "liveTraffic";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("activeArticles", buffers.size());
+    metrics.put("recorded", recorded.sum());
+    metrics.put("dropped", dropped.sum());
+    metrics.put("evicted", evicted.sum());
+    return metrics;
+  }
+}
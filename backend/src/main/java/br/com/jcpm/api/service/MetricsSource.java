@@ -0,0 +1,24 @@
+package br.com.jcpm.api.service;
+
+import java.util.Map;
+
+/**
+ * Contrato para componentes em memória (caches, filas, contadores) que publicam métricas
+ * operacionais no endpoint administrativo de métricas.
+ */
+public interface MetricsSource {
+
+  /**
+   * Nome sob o qual as métricas do componente são agrupadas.
+   *
+   * @return O nome do grupo de métricas.
+   */
+  String getMetricsName();
+
+  /**
+   * Retrato atual das métricas do componente.
+   *
+   * @return Um mapa de nome da métrica para valor.
+   */
+  Map<String, Object> getMetrics();
+}
@@ -0,0 +1,92 @@
+package br.com.jcpm.api.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Atribui a cada notícia um ordinal inteiro denso, usado como posição em bitmaps.
+ *
+ * <p>Os ordinais valem apenas para o processo atual e não são persistidos. Na inicialização são
+ * atribuídos por ordem de publicação, de modo que notícias próximas no tempo (as mais curtidas
+ * juntas) caiam na mesma partição dos bitmaps. Ordinais de notícias excluídas são removidos, mas
+ * não reutilizados, de modo que bits antigos em bitmaps nunca apontam para outra notícia.
+ */
+@Service
+public class NewsOrdinalService implements MetricsSource, SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(NewsOrdinalService.class);
+
+  /** Valor retornado por {@link #find(UUID)} para notícias sem ordinal. */
+  public static final int NO_ORDINAL = -1;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+  private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+  public NewsOrdinalService(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** Atribui os ordinais das notícias existentes em uma única varredura. */
+  @Override
+  public void afterSingletonsInstantiated() {
+    jdbcTemplate.query(
+        "SELECT id FROM noticias ORDER BY publication_date, id",
+        rs -> {
+          ordinalOf(UUID.fromString(rs.getString(1)));
+        });
+    log.info("Ordinais atribuídos a {} notícias", ordinals.size());
+  }
+
+  /**
+   * Retorna o ordinal de uma notícia, atribuindo o próximo disponível se ela ainda não tiver um.
+   * Deve ser chamado apenas com IDs de notícias existentes.
+   *
+   * @param newsId O ID da notícia.
+   * @return O ordinal.
+   */
+  public int ordinalOf(UUID newsId) {
+    return ordinals.computeIfAbsent(newsId, id -> nextOrdinal.getAndIncrement());
+  }
+
+  /**
+   * Retorna o ordinal de uma notícia sem atribuir um novo, para IDs vindos de requisições.
+   *
+   * @param newsId O ID da notícia.
+   * @return O ordinal, ou {@link #NO_ORDINAL} se a notícia não tiver ordinal.
+   */
+  public int find(UUID newsId) {
+    return ordinals.getOrDefault(newsId, NO_ORDINAL);
+  }
+
+  /**
+   * Remove o ordinal de uma notícia excluída; {@link #find(UUID)} passa a retornar {@link
+   * #NO_ORDINAL}.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void remove(UUID newsId) {
+    ordinals.remove(newsId);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "newsOrdinals";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("assigned", ordinals.size());
+    metrics.put("nextOrdinal", nextOrdinal.get());
+    return metrics;
+  }
+}
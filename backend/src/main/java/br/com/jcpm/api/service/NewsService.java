@@ -0,0 +1,257 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.domain.entity.News;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.FeedVersionDTO;
+import br.com.jcpm.api.dto.NewsCardDTO;
+import br.com.jcpm.api.dto.NewsVersionDTO;
+import br.com.jcpm.api.repository.NewsRepository;
+import br.com.jcpm.api.util.CursorCodec;
+import br.com.jcpm.api.util.WeightedLruCache;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço que implementa a lógica de leitura e escrita das notícias, mantendo um cache em memória
+ * das notícias consultadas por slug e por ID.
+ */
+@Service
+public class NewsService implements MetricsSource {
+
+  public static final String STATUS_PUBLISHED = "PUBLICADO";
+  private static final int MAX_PAGE_SIZE = 50;
+  private static final String PUBLIC_FEED = "public";
+
+  private static final String BUMP_FEED_VERSION =
+      "INSERT INTO feed_versions (feed_name, version, updated_at) VALUES (?, 1, ?) "
+          + "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = VALUES(updated_at)";
+
+  private final NewsRepository newsRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final EngagementCounterService engagementCounterService;
+  private final ProfileService profileService;
+  private final TrendingService trendingService;
+  private final NewsOrdinalService newsOrdinalService;
+  private final WeightedLruCache<UUID, News> newsCache;
+  private final Map<String, UUID> slugIndex = new ConcurrentHashMap<>();
+
+  // Incrementado a cada escrita; descarta notícias carregadas durante uma escrita concorrente
+  private final AtomicLong writes = new AtomicLong();
+
+  public NewsService(
+      NewsRepository newsRepository,
+      JdbcTemplate jdbcTemplate,
+      EngagementCounterService engagementCounterService,
+      ProfileService profileService,
+      TrendingService trendingService,
+      NewsOrdinalService newsOrdinalService,
+      @Value("${news.cache.max-entries:1000}") int maxEntries,
+      @Value("${news.cache.max-weight:33554432}") long maxWeight) {
+    this.newsRepository = newsRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.engagementCounterService = engagementCounterService;
+    this.profileService = profileService;
+    this.trendingService = trendingService;
+    this.newsOrdinalService = newsOrdinalService;
+    this.newsCache =
+        new WeightedLruCache<>(
+            maxEntries, maxWeight, (id, news) -> slugIndex.remove(news.getSlug(), id));
+  }
+
+  /**
+   * Obtém uma página do feed público paginado por keyset sobre (publicationDate, id).
+   *
+   * @param cursor O cursor da página anterior, ou null para a primeira página.
+   * @param size O número de cards desejado.
+   * @return A página de cards e o cursor da próxima página.
+   */
+  public CursorPageDTO<NewsCardDTO> getFeed(String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+
+    List<NewsCardDTO> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = newsRepository.findFeedFirstPage(STATUS_PUBLISHED, limit);
+    } else {
+      CursorCodec.Cursor position = CursorCodec.decode(cursor);
+      rows =
+          newsRepository.findFeedPageAfter(
+              STATUS_PUBLISHED, position.timestamp(), position.id(), limit);
+    }
+
+    return CursorPageDTO.fromRows(
+        rows, pageSize, card -> CursorCodec.encode(card.getPublicationDate(), card.getId()));
+  }
+
+  /**
+   * Obtém a versão atual do feed público, lida pela chave primária em {@code feed_versions}. O
+   * custo não depende do número de notícias.
+   *
+   * @return A versão do feed.
+   */
+  public FeedVersionDTO getFeedVersion() {
+    List<FeedVersionDTO> rows =
+        jdbcTemplate.query(
+            "SELECT version, updated_at FROM feed_versions WHERE feed_name = ?",
+            (rs, rowNum) ->
+                new FeedVersionDTO(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+            PUBLIC_FEED);
+    return rows.isEmpty() ? new FeedVersionDTO(0, null) : rows.get(0);
+  }
+
+  /**
+   * Obtém apenas a versão de uma notícia pelo ID, sem carregar o conteúdo quando ela não estiver
+   * em cache.
+   *
+   * @param id O ID da notícia.
+   * @return Um Optional com a versão, se a notícia existir.
+   */
+  public Optional<NewsVersionDTO> findVersionById(UUID id) {
+    News cached = newsCache.get(id);
+    if (cached != null) {
+      return Optional.of(NewsVersionDTO.of(cached));
+    }
+    return newsRepository.findVersionById(id);
+  }
+
+  /**
+   * Obtém apenas a versão de uma notícia pelo slug, sem carregar o conteúdo quando ela não
+   * estiver em cache.
+   *
+   * @param slug O slug da notícia.
+   * @return Um Optional com a versão, se a notícia existir.
+   */
+  public Optional<NewsVersionDTO> findVersionBySlug(String slug) {
+    UUID id = slugIndex.get(slug);
+    if (id != null) {
+      News cached = newsCache.get(id);
+      if (cached != null && slug.equals(cached.getSlug())) {
+        return Optional.of(NewsVersionDTO.of(cached));
+      }
+    }
+    return newsRepository.findVersionBySlug(slug);
+  }
+
+  /**
+   * Busca uma notícia pelo ID, consultando primeiro o cache.
+   *
+   * @param id O ID da notícia.
+   * @return Um Optional com a notícia, se existir.
+   */
+  public Optional<News> findById(UUID id) {
+    News cached = newsCache.get(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    long version = writes.get();
+    return newsRepository.findById(id).map(news -> cache(news, version));
+  }
+
+  /**
+   * Busca uma notícia pelo slug, consultando primeiro o cache.
+   *
+   * @param slug O slug da notícia.
+   * @return Um Optional com a notícia, se existir.
+   */
+  public Optional<News> findBySlug(String slug) {
+    UUID id = slugIndex.get(slug);
+    if (id != null) {
+      News cached = newsCache.get(id);
+      if (cached != null && slug.equals(cached.getSlug())) {
+        return Optional.of(cached);
+      }
+    }
+    long version = writes.get();
+    return newsRepository.findBySlug(slug).map(news -> cache(news, version));
+  }
+
+  /**
+   * Persiste uma notícia nova ou alterada e invalida as entradas de cache correspondentes,
+   * incluindo o perfil público do autor.
+   *
+   * @param news A notícia a ser salva.
+   * @return A notícia salva.
+   */
+  public News save(News news) {
+    News saved = newsRepository.save(news);
+    evict(saved.getId(), saved.getSlug());
+    bumpFeedVersion();
+    engagementCounterService.register(saved.getId());
+    profileService.invalidate(saved.getAuthor().getId());
+    return saved;
+  }
+
+  /**
+   * Remove uma notícia e invalida as entradas de cache correspondentes.
+   *
+   * @param news A notícia a ser removida.
+   */
+  public void delete(News news) {
+    newsRepository.delete(news);
+    evict(news.getId(), news.getSlug());
+    bumpFeedVersion();
+    engagementCounterService.remove(news.getId());
+    trendingService.remove(news.getId());
+    newsOrdinalService.remove(news.getId());
+    profileService.invalidate(news.getAuthor().getId());
+  }
+
+  /**
+   * Coloca em cache uma notícia lida do banco, a menos que uma escrita tenha ocorrido desde o
+   * início da leitura: nesse caso a linha lida pode ser anterior à escrita.
+   */
+  private News cache(News news, long version) {
+    newsCache.put(news.getId(), news, weightOf(news));
+    slugIndex.put(news.getSlug(), news.getId());
+    if (writes.get() != version) {
+      newsCache.invalidate(news.getId());
+      slugIndex.remove(news.getSlug(), news.getId());
+    }
+    return news;
+  }
+
+  /** Invalida as versões do feed já entregues aos clientes (ETag / Last-Modified). */
+  private void bumpFeedVersion() {
+    jdbcTemplate.update(BUMP_FEED_VERSION, PUBLIC_FEED, Timestamp.valueOf(LocalDateTime.now()));
+  }
+
+  private void evict(UUID id, String slug) {
+    writes.incrementAndGet();
+    newsCache.invalidate(id);
+    slugIndex.remove(slug);
+  }
+
+  private static long weightOf(News news) {
+    return lengthOf(news.getContent())
+        + lengthOf(news.getContentJson())
+        + lengthOf(news.getSummary())
+        + lengthOf(news.getTitle());
+  }
+
+  private static long lengthOf(String value) {
+    return value == null ? 0 : value.length();
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "newsCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = newsCache.stats();
+    metrics.put("slugIndexSize", slugIndex.size());
+    return metrics;
+  }
+}
@@ -0,0 +1,214 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.domain.entity.User;
+import br.com.jcpm.api.domain.enums.UserType;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.NewsCardDTO;
+import br.com.jcpm.api.dto.UserProfileDTO;
+import br.com.jcpm.api.dto.UserProfileDTO.NewsSummaryDTO;
+import br.com.jcpm.api.exception.BadRequestException;
+import br.com.jcpm.api.repository.NewsRepository;
+import br.com.jcpm.api.repository.UserRepository;
+import br.com.jcpm.api.util.CursorCodec;
+import br.com.jcpm.api.util.WeightedLruCache;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Modelo de leitura do perfil público dos usuários.
+ *
+ * <p>O perfil montado (dados do usuário, total de publicações e a primeira página de resumos) fica
+ * em cache por nome de usuário. Os resumos vêm de uma projeção, sem carregar o conteúdo das
+ * notícias. Contadores de seguidores e o indicador "seguindo" não entram no cache: são lidos do
+ * {@link FollowGraphService} em memória a cada requisição. O cache é invalidado quando o autor
+ * publica, edita ou exclui uma notícia e quando seus dados são alterados.
+ */
+@Service
+public class ProfileService implements MetricsSource {
+
+  private static final int MAX_PAGE_SIZE = 50;
+
+  private final UserRepository userRepository;
+  private final NewsRepository newsRepository;
+  private final FollowGraphService followGraphService;
+  private final int newsPageSize;
+  private final WeightedLruCache<String, UserProfileDTO> profiles;
+  private final Map<UUID, String> usernamesById = new ConcurrentHashMap<>();
+
+  // Incrementado a cada invalidação; descarta perfis montados durante uma escrita concorrente
+  private final AtomicLong writes = new AtomicLong();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public ProfileService(
+      UserRepository userRepository,
+      NewsRepository newsRepository,
+      FollowGraphService followGraphService,
+      @Value("${profile.cache.max-entries:5000}") int maxEntries,
+      @Value("${profile.news-page-size:12}") int newsPageSize) {
+    this.userRepository = userRepository;
+    this.newsRepository = newsRepository;
+    this.followGraphService = followGraphService;
+    this.newsPageSize = newsPageSize;
+    this.profiles =
+        new WeightedLruCache<>(
+            maxEntries,
+            maxEntries,
+            (username, profile) -> usernamesById.remove(profile.getId(), username));
+  }
+
+  /**
+   * Monta o perfil público de um usuário.
+   *
+   * @param username O nome de usuário.
+   * @param viewerId O ID do usuário autenticado, ou null para anônimos.
+   * @return O perfil, se o usuário existir.
+   */
+  public Optional<UserProfileDTO> getProfile(String username, UUID viewerId) {
+    return cachedProfile(username)
+        .map(
+            profile -> {
+              UUID id = profile.getId();
+              return profile.toBuilder()
+                  .followersCount(followGraphService.countFollowers(id))
+                  .followingCount(followGraphService.countFollowing(id))
+                  .followedByCurrentUser(
+                      viewerId != null && followGraphService.isFollowing(viewerId, id))
+                  .build();
+            });
+  }
+
+  /**
+   * Lista as notícias publicadas de um usuário, paginando por keyset sobre (publicationDate, id).
+   *
+   * @param username O nome de usuário.
+   * @param cursor O cursor da página anterior, ou null para a primeira página.
+   * @param size O número de notícias desejado (máximo 50).
+   * @return A página de resumos, se o usuário existir.
+   * @throws BadRequestException se o cursor for inválido.
+   */
+  public Optional<CursorPageDTO<NewsSummaryDTO>> listPublishedNews(
+      String username, String cursor, int size) {
+    return cachedProfile(username).map(profile -> publishedPage(profile.getId(), cursor, size));
+  }
+
+  /**
+   * Remove do cache o perfil de um usuário (ex: após publicar, editar ou excluir uma notícia, ou
+   * após alteração dos seus dados).
+   *
+   * @param userId O ID do usuário.
+   */
+  public void invalidate(UUID userId) {
+    writes.incrementAndGet();
+    String username = usernamesById.remove(userId);
+    if (username != null) {
+      profiles.invalidate(username);
+      invalidations.increment();
+    }
+  }
+
+  private Optional<UserProfileDTO> cachedProfile(String username) {
+    UserProfileDTO cached = profiles.get(username);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+
+    long version = writes.get();
+    loads.increment();
+    Optional<UserProfileDTO> loaded = userRepository.findByUsername(username).map(this::load);
+    loaded.ifPresent(
+        profile -> {
+          profiles.put(username, profile, 1);
+          usernamesById.put(profile.getId(), username);
+          if (writes.get() != version) {
+            profiles.invalidate(username);
+          }
+        });
+    return loaded;
+  }
+
+  private UserProfileDTO load(User user) {
+    UserProfileDTO.UserProfileDTOBuilder profile =
+        UserProfileDTO.builder()
+            .id(user.getId())
+            .name(user.getName())
+            .username(user.getUsername())
+            .biography(user.getBiography())
+            .profileImageUrl(user.getProfileImageUrl())
+            .userType(user.getUserType())
+            .registrationDate(user.getRegistrationDate());
+
+    // Leitores comuns não publicam: evita as consultas de notícias
+    if (user.getUserType() == UserType.USER) {
+      return profile.publishedNews(List.of()).build();
+    }
+    CursorPageDTO<NewsSummaryDTO> firstPage = publishedPage(user.getId(), null, newsPageSize);
+    return profile
+        .publishedNewsCount(
+            newsRepository.countByAuthorIdAndStatus(user.getId(), NewsService.STATUS_PUBLISHED))
+        .publishedNews(firstPage.getItems())
+        .publishedNewsNextCursor(firstPage.getNextCursor())
+        .build();
+  }
+
+  private CursorPageDTO<NewsSummaryDTO> publishedPage(UUID authorId, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+    List<NewsCardDTO> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows =
+          newsRepository.findAuthorsFirstPage(
+              List.of(authorId), NewsService.STATUS_PUBLISHED, limit);
+    } else {
+      CursorCodec.Cursor position = CursorCodec.decode(cursor);
+      rows =
+          newsRepository.findAuthorsPageAfter(
+              List.of(authorId),
+              NewsService.STATUS_PUBLISHED,
+              position.timestamp(),
+              position.id(),
+              limit);
+    }
+
+    List<NewsSummaryDTO> summaries =
+        rows.stream()
+            .map(
+                card ->
+                    NewsSummaryDTO.builder()
+                        .id(card.getId())
+                        .title(card.getTitle())
+                        .slug(card.getSlug())
+                        .summary(card.getSummary())
+                        .publicationDate(card.getPublicationDate())
+                        .featuredImageUrl(card.getFeaturedImageUrl())
+                        .build())
+            .toList();
+    return CursorPageDTO.fromRows(
+        summaries,
+        pageSize,
+        summary -> CursorCodec.encode(summary.getPublicationDate(), summary.getId()));
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "profileCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>(profiles.stats());
+    metrics.put("loads", loads.sum());
+    metrics.put("invalidations", invalidations.sum());
+    return metrics;
+  }
+}
@@ -0,0 +1,492 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.domain.entity.News;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.NewsCardDTO;
+import br.com.jcpm.api.exception.BadRequestException;
+import br.com.jcpm.api.repository.NewsRepository;
+import br.com.jcpm.api.util.CursorCodec;
+import jakarta.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Timeline personalizada de cada usuário com as notícias publicadas pelos autores que ele segue.
+ *
+ * <p>As publicações são distribuídas na escrita (fan-out-on-write): o ID da notícia é inserido, em
+ * uma thread própria, em um buffer limitado de cada seguidor. Autores com mais de {@code
+ * celebrity-threshold} seguidores não são distribuídos; suas notícias são buscadas no banco na
+ * leitura (fan-out-on-read) e mescladas ao buffer. Na leitura, autores com mais da metade do
+ * limite já são consultados no banco, para que um autor que perde seguidores não deixe lacunas.
+ *
+ * <p>Cada buffer guarda até {@code max-entries} notícias e uma marca d'água: abaixo dela o buffer
+ * pode estar incompleto (entradas descartadas pelo limite ou anteriores à criação do buffer), e
+ * a página é montada com uma consulta direta aos autores seguidos. Os buffers alterados são
+ * gravados em {@code user_timelines} em formato binário de 24 bytes por notícia e recarregados
+ * sob demanda; buffers ociosos e já persistidos saem da memória.
+ */
+@Service
+public class TimelineService implements MetricsSource {
+
+  private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+
+  private static final String STATUS_PUBLISHED = "PUBLICADO";
+  private static final int MAX_PAGE_SIZE = 50;
+  private static final byte FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 1 + Long.BYTES + Integer.BYTES;
+  private static final int ENTRY_BYTES = 3 * Long.BYTES;
+
+  private static final String UPSERT_TIMELINE =
+      "INSERT IGNORE INTO user_timelines (user_id, entries, updated_at) VALUES (?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE entries = VALUES(entries), updated_at = VALUES(updated_at)";
+
+  /** Ordem das páginas: (data de publicação, id) decrescente, a mesma das consultas no banco. */
+  private static final Comparator<NewsCardDTO> NEWEST_FIRST =
+      Comparator.comparing(NewsCardDTO::getPublicationDate)
+          .thenComparing(card -> card.getId().toString())
+          .reversed();
+
+  /**
+   * Buffer de uma timeline: triplas (micros da publicação, bits altos e baixos do ID) em ordem
+   * crescente. A comparação sem sinal dos bits do UUID equivale à ordem do texto do ID no banco.
+   */
+  private static final class Timeline {
+    private final long createdMicros = toMicros(LocalDateTime.now());
+    private long[] entries = new long[0];
+    private int size;
+    private long completeFromMicros = Long.MIN_VALUE;
+    private boolean loaded;
+    private volatile boolean dirty;
+    private volatile long lastTouchedMillis = System.currentTimeMillis();
+
+    /** Insere uma notícia, descartando a mais antiga quando o buffer está cheio. */
+    synchronized boolean add(long micros, long msb, long lsb, int capacity) {
+      int index = search(micros, msb, lsb);
+      if (index < 0) {
+        return false;
+      }
+      if (size == capacity) {
+        if (index == 0) {
+          completeFromMicros = Math.max(completeFromMicros, micros + 1);
+          return false;
+        }
+        completeFromMicros = Math.max(completeFromMicros, entries[0] + 1);
+        System.arraycopy(entries, 3, entries, 0, (index - 1) * 3);
+        index--;
+      } else {
+        if (entries.length < (size + 1) * 3) {
+          entries = Arrays.copyOf(entries, Math.min(capacity, Math.max(8, size * 2)) * 3);
+        }
+        System.arraycopy(entries, index * 3, entries, (index + 1) * 3, (size - index) * 3);
+        size++;
+      }
+      entries[index * 3] = micros;
+      entries[index * 3 + 1] = msb;
+      entries[index * 3 + 2] = lsb;
+      return true;
+    }
+
+    /**
+     * Retorna até {@code limit} IDs anteriores à posição informada, do mais recente para o mais
+     * antigo, sem descer abaixo da marca d'água.
+     */
+    synchronized List<UUID> slice(CursorCodec.Cursor position, int limit) {
+      int end = size;
+      if (position != null) {
+        UUID id = position.id();
+        int found =
+            search(
+                toMicros(position.timestamp()),
+                id.getMostSignificantBits(),
+                id.getLeastSignificantBits());
+        end = found < 0 ? -found - 1 : found;
+      }
+      List<UUID> ids = new ArrayList<>(Math.min(limit, end));
+      int index = end - 1;
+      while (index >= 0 && ids.size() < limit && entries[index * 3] >= completeFromMicros) {
+        ids.add(new UUID(entries[index * 3 + 1], entries[index * 3 + 2]));
+        index--;
+      }
+      return ids;
+    }
+
+    synchronized long completeFromMicros() {
+      return completeFromMicros;
+    }
+
+    synchronized byte[] toBytes() {
+      ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size * ENTRY_BYTES);
+      buffer.put(FORMAT_VERSION).putLong(completeFromMicros).putInt(size);
+      for (int i = 0; i < size * 3; i++) {
+        buffer.putLong(entries[i]);
+      }
+      return buffer.array();
+    }
+
+    /** Mescla a forma persistida no buffer; sem linha no banco, o buffer vale desde sua criação. */
+    synchronized void mergeStored(byte[] stored, int capacity) {
+      if (stored == null) {
+        completeFromMicros = Math.max(completeFromMicros, createdMicros);
+        return;
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(stored);
+      if (buffer.remaining() < HEADER_BYTES || buffer.get() != FORMAT_VERSION) {
+        throw new IllegalArgumentException("Formato de timeline desconhecido");
+      }
+      completeFromMicros = Math.max(completeFromMicros, buffer.getLong());
+      int count = buffer.getInt();
+      if (buffer.remaining() != count * ENTRY_BYTES) {
+        throw new IllegalArgumentException("Timeline persistida truncada");
+      }
+      for (int i = 0; i < count; i++) {
+        add(buffer.getLong(), buffer.getLong(), buffer.getLong(), capacity);
+      }
+    }
+
+    /** Busca binária: a posição de inserção, ou {@code -(posição) - 1} se a entrada já existe. */
+    private int search(long micros, long msb, long lsb) {
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int base = mid * 3;
+        int cmp = Long.compare(entries[base], micros);
+        if (cmp == 0) {
+          cmp = Long.compareUnsigned(entries[base + 1], msb);
+        }
+        if (cmp == 0) {
+          cmp = Long.compareUnsigned(entries[base + 2], lsb);
+        }
+        if (cmp < 0) {
+          low = mid + 1;
+        } else if (cmp > 0) {
+          high = mid - 1;
+        } else {
+          return -mid - 1;
+        }
+      }
+      return low;
+    }
+  }
+
+  private final NewsRepository newsRepository;
+  private final FollowGraphService followGraphService;
+  private final JdbcTemplate jdbcTemplate;
+  private final int capacity;
+  private final int celebrityThreshold;
+  private final long idleEvictionMillis;
+
+  private final Map<UUID, Timeline> timelines = new ConcurrentHashMap<>();
+  private final ExecutorService fanOutExecutor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "timeline-fanout");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final LongAdder fannedOut = new LongAdder();
+  private final LongAdder celebritySkips = new LongAdder();
+  private final LongAdder backfilled = new LongAdder();
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder fallbackReads = new LongAdder();
+  private final LongAdder readNanos = new LongAdder();
+  private final LongAdder persisted = new LongAdder();
+  private final LongAdder persistFailures = new LongAdder();
+  private final LongAdder evicted = new LongAdder();
+
+  public TimelineService(
+      NewsRepository newsRepository,
+      FollowGraphService followGraphService,
+      JdbcTemplate jdbcTemplate,
+      @Value("${timeline.max-entries:500}") int capacity,
+      @Value("${timeline.celebrity-threshold:10000}") int celebrityThreshold,
+      @Value("${timeline.idle-eviction-minutes:30}") long idleEvictionMinutes) {
+    this.newsRepository = newsRepository;
+    this.followGraphService = followGraphService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.capacity = capacity;
+    this.celebrityThreshold = celebrityThreshold;
+    this.idleEvictionMillis = Duration.ofMinutes(idleEvictionMinutes).toMillis();
+  }
+
+  /**
+   * Distribui uma notícia publicada para as timelines dos seguidores do autor. A distribuição é
+   * feita em segundo plano; rascunhos são ignorados.
+   *
+   * @param news A notícia salva.
+   */
+  public void publish(News news) {
+    if (!STATUS_PUBLISHED.equals(news.getStatus()) || news.getPublicationDate() == null) {
+      return;
+    }
+    UUID authorId = news.getAuthor().getId();
+    UUID newsId = news.getId();
+    long micros = toMicros(news.getPublicationDate());
+    fanOutExecutor.execute(() -> fanOut(authorId, newsId, micros));
+  }
+
+  private void fanOut(UUID authorId, UUID newsId, long micros) {
+    if (followGraphService.countFollowers(authorId) > celebrityThreshold) {
+      celebritySkips.increment();
+      return;
+    }
+    long msb = newsId.getMostSignificantBits();
+    long lsb = newsId.getLeastSignificantBits();
+    for (UUID followerId : followGraphService.getFollowerIds(authorId)) {
+      timelines.compute(
+          followerId,
+          (id, timeline) -> {
+            Timeline target = timeline != null ? timeline : new Timeline();
+            if (target.add(micros, msb, lsb, capacity)) {
+              target.dirty = true;
+            }
+            return target;
+          });
+      fannedOut.increment();
+    }
+  }
+
+  /**
+   * Insere na timeline de um usuário as notícias recentes de um autor que ele passou a seguir,
+   * para que o buffer continue completo acima da marca d'água.
+   *
+   * @param followerId O ID de quem segue.
+   * @param authorId O ID do autor seguido.
+   */
+  public void backfill(UUID followerId, UUID authorId) {
+    if (isReadFromDatabase(authorId)) {
+      return;
+    }
+    Timeline timeline = acquire(followerId);
+    long completeFrom = timeline.completeFromMicros();
+    List<NewsCardDTO> recent =
+        newsRepository.findAuthorsFirstPage(
+            List.of(authorId), STATUS_PUBLISHED, PageRequest.of(0, capacity));
+    for (NewsCardDTO card : recent) {
+      long micros = toMicros(card.getPublicationDate());
+      if (micros < completeFrom) {
+        break;
+      }
+      UUID id = card.getId();
+      long msb = id.getMostSignificantBits();
+      if (timeline.add(micros, msb, id.getLeastSignificantBits(), capacity)) {
+        timeline.dirty = true;
+        backfilled.increment();
+      }
+    }
+  }
+
+  /**
+   * Retorna uma página da timeline do usuário, mesclando o buffer com as notícias dos autores
+   * lidos diretamente do banco.
+   *
+   * @param userId O ID do usuário.
+   * @param cursor O cursor opaco da página anterior; ausente para a primeira página.
+   * @param size O número de notícias por página (máximo 50).
+   * @return A página de cards e o cursor da próxima página.
+   * @throws BadRequestException se o cursor for inválido.
+   */
+  public CursorPageDTO<NewsCardDTO> getTimeline(UUID userId, String cursor, int size) {
+    long start = System.nanoTime();
+    int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    CursorCodec.Cursor position =
+        cursor == null || cursor.isBlank() ? null : CursorCodec.decode(cursor);
+
+    List<UUID> followed = followGraphService.getFollowingIds(userId);
+    if (followed.isEmpty()) {
+      return CursorPageDTO.fromRows(List.of(), pageSize, card -> null);
+    }
+    Set<UUID> followedSet = new HashSet<>(followed);
+    List<UUID> readFromDatabase = followed.stream().filter(this::isReadFromDatabase).toList();
+
+    int wanted = pageSize + 1;
+    List<UUID> ids = acquire(userId).slice(position, 2 * wanted);
+    List<NewsCardDTO> candidates = new ArrayList<>();
+    if (!ids.isEmpty()) {
+      newsRepository.findCardsByIds(ids, STATUS_PUBLISHED).stream()
+          .filter(card -> followedSet.contains(card.getAuthorId()))
+          .forEach(candidates::add);
+    }
+
+    if (candidates.size() < wanted) {
+      // O buffer chegou à marca d'água antes de completar a página: consulta os autores seguidos
+      fallbackReads.increment();
+      candidates = findByAuthors(followed, position, wanted);
+    } else if (!readFromDatabase.isEmpty()) {
+      candidates.addAll(findByAuthors(readFromDatabase, position, wanted));
+    }
+
+    Map<UUID, NewsCardDTO> unique = new LinkedHashMap<>();
+    candidates.stream()
+        .filter(card -> position == null || isBefore(card, position))
+        .forEach(card -> unique.putIfAbsent(card.getId(), card));
+    List<NewsCardDTO> rows =
+        unique.values().stream().sorted(NEWEST_FIRST).limit(wanted).toList();
+
+    reads.increment();
+    readNanos.add(System.nanoTime() - start);
+    return CursorPageDTO.fromRows(
+        rows, pageSize, card -> CursorCodec.encode(card.getPublicationDate(), card.getId()));
+  }
+
+  /**
+   * Remove a timeline de um usuário da memória (ex: após sua exclusão). A linha persistida é
+   * removida pelo banco em cascata.
+   *
+   * @param userId O ID do usuário.
+   */
+  public void removeUser(UUID userId) {
+    timelines.remove(userId);
+  }
+
+  /** Persiste as timelines alteradas e remove da memória as que estão ociosas. */
+  @Scheduled(fixedDelayString = "${timeline.flush-interval-ms:30000}")
+  public synchronized void persist() {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<UUID, Timeline> entry : timelines.entrySet()) {
+      UUID userId = entry.getKey();
+      Timeline timeline = entry.getValue();
+      if (timeline.dirty) {
+        timeline.dirty = false;
+        try {
+          ensureLoaded(userId, timeline);
+          jdbcTemplate.update(
+              UPSERT_TIMELINE,
+              userId.toString(),
+              timeline.toBytes(),
+              Timestamp.valueOf(LocalDateTime.now()));
+          persisted.increment();
+        } catch (DataAccessException e) {
+          timeline.dirty = true;
+          persistFailures.increment();
+          log.error("Falha ao persistir timeline do usuário {}", userId, e);
+        }
+      }
+      timelines.computeIfPresent(
+          userId,
+          (id, current) -> {
+            if (current.dirty || now - current.lastTouchedMillis < idleEvictionMillis) {
+              return current;
+            }
+            evicted.increment();
+            return null;
+          });
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    fanOutExecutor.shutdown();
+    fanOutExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    persist();
+  }
+
+  /** Obtém o buffer do usuário, carregando a forma persistida na primeira leitura. */
+  private Timeline acquire(UUID userId) {
+    Timeline timeline =
+        timelines.compute(
+            userId,
+            (id, current) -> {
+              Timeline target = current != null ? current : new Timeline();
+              target.lastTouchedMillis = System.currentTimeMillis();
+              return target;
+            });
+    ensureLoaded(userId, timeline);
+    return timeline;
+  }
+
+  private void ensureLoaded(UUID userId, Timeline timeline) {
+    synchronized (timeline) {
+      if (timeline.loaded) {
+        return;
+      }
+      List<byte[]> stored =
+          jdbcTemplate.query(
+              "SELECT entries FROM user_timelines WHERE user_id = ?",
+              (rs, rowNum) -> rs.getBytes(1),
+              userId.toString());
+      try {
+        timeline.mergeStored(stored.isEmpty() ? null : stored.get(0), capacity);
+      } catch (IllegalArgumentException e) {
+        log.warn("Timeline persistida de {} ignorada: {}", userId, e.getMessage());
+        timeline.mergeStored(null, capacity);
+      }
+      timeline.loaded = true;
+    }
+  }
+
+  private boolean isReadFromDatabase(UUID authorId) {
+    return followGraphService.countFollowers(authorId) > celebrityThreshold / 2;
+  }
+
+  private List<NewsCardDTO> findByAuthors(
+      List<UUID> authorIds, CursorCodec.Cursor position, int limit) {
+    PageRequest page = PageRequest.of(0, limit);
+    return position == null
+        ? newsRepository.findAuthorsFirstPage(authorIds, STATUS_PUBLISHED, page)
+        : newsRepository.findAuthorsPageAfter(
+            authorIds, STATUS_PUBLISHED, position.timestamp(), position.id(), page);
+  }
+
+  private static boolean isBefore(NewsCardDTO card, CursorCodec.Cursor position) {
+    int cmp = card.getPublicationDate().compareTo(position.timestamp());
+    if (cmp == 0) {
+      cmp = card.getId().toString().compareTo(position.id().toString());
+    }
+    return cmp < 0;
+  }
+
+  private static long toMicros(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "timeline";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    long readCount = reads.sum();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("timelinesInMemory", timelines.size());
+    metrics.put("maxEntries", capacity);
+    metrics.put("celebrityThreshold", celebrityThreshold);
+    metrics.put("fannedOut", fannedOut.sum());
+    metrics.put("celebritySkips", celebritySkips.sum());
+    metrics.put("backfilled", backfilled.sum());
+    metrics.put("reads", readCount);
+    metrics.put("fallbackReads", fallbackReads.sum());
+    metrics.put("averageReadMicros", readCount == 0 ? 0 : readNanos.sum() / readCount / 1000);
+    metrics.put("persisted", persisted.sum());
+    metrics.put("persistFailures", persistFailures.sum());
+    metrics.put("evicted", evicted.sum());
+    return metrics;
+  }
+}
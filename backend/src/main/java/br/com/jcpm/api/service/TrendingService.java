@@ -0,0 +1,295 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.dto.NewsCardDTO;
+import br.com.jcpm.api.repository.NewsRepository;
+import br.com.jcpm.api.util.IndexedMaxHeap;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ranking de notícias "em alta", com visualizações, curtidas e comentários ponderados por
+ * decaimento exponencial no tempo.
+ *
+ * <p>Usa decaimento para frente (forward decay): cada evento soma {@code peso * e^(λ(t - L))},
+ * onde L é um instante de referência fixo. Como todas as pontuações guardadas decaem no mesmo
+ * ritmo, a ordem entre elas não muda com o passar do tempo e nada precisa ser recalculado entre
+ * eventos; a pontuação atual é obtida multiplicando por {@code e^(-λ(agora - L))}. Quando o
+ * expoente cresce demais, as pontuações são reescaladas e L avança.
+ *
+ * <p>As pontuações ficam em um {@link IndexedMaxHeap}: um evento custa O(log n) e as K primeiras
+ * são lidas sem ordenar o conjunto. Um retrato é gravado periodicamente em {@code
+ * trending_scores} e recarregado na inicialização.
+ */
+@Service
+public class TrendingService implements MetricsSource, SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+  private static final int MAX_LIMIT = 50;
+  // Expoente a partir do qual as pontuações são reescaladas (e^40 ~ 2,4e17)
+  private static final double RENORMALIZE_EXPONENT = 40;
+  private static final long PRUNE_THROTTLE_MILLIS = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final NewsRepository newsRepository;
+  private final EngagementCounterService engagementCounterService;
+  private final double decayPerMilli;
+  private final double viewWeight;
+  private final double likeWeight;
+  private final double commentWeight;
+  private final double minScore;
+  private final int maxTracked;
+
+  // Protegidos pelo monitor da instância
+  private final IndexedMaxHeap<UUID> scores = new IndexedMaxHeap<>();
+  private long landmarkMillis = System.currentTimeMillis();
+  private long lastPruneMillis;
+
+  private final LongAdder updates = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder snapshots = new LongAdder();
+  private final LongAdder snapshotFailures = new LongAdder();
+  private volatile int lastSnapshotRows;
+
+  public TrendingService(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      NewsRepository newsRepository,
+      EngagementCounterService engagementCounterService,
+      @Value("${trending.half-life-minutes:120}") double halfLifeMinutes,
+      @Value("${trending.weight.view:1}") double viewWeight,
+      @Value("${trending.weight.like:4}") double likeWeight,
+      @Value("${trending.weight.comment:6}") double commentWeight,
+      @Value("${trending.min-score:0.05}") double minScore,
+      @Value("${trending.max-tracked:20000}") int maxTracked) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.newsRepository = newsRepository;
+    this.engagementCounterService = engagementCounterService;
+    this.decayPerMilli = Math.log(2) / (halfLifeMinutes * 60_000);
+    this.viewWeight = viewWeight;
+    this.likeWeight = likeWeight;
+    this.commentWeight = commentWeight;
+    this.minScore = minScore;
+    this.maxTracked = maxTracked;
+  }
+
+  /** Restaura o último retrato, decaindo cada pontuação pelo tempo decorrido desde a gravação. */
+  @Override
+  public synchronized void afterSingletonsInstantiated() {
+    long now = System.currentTimeMillis();
+    landmarkMillis = now;
+    jdbcTemplate.query(
+        "SELECT news_id, score, scored_at FROM trending_scores",
+        rs -> {
+          long elapsed = Math.max(0, now - rs.getTimestamp(3).getTime());
+          double score = rs.getDouble(2) * Math.exp(-decayPerMilli * elapsed);
+          if (score >= minScore && scores.size() < maxTracked) {
+            scores.set(UUID.fromString(rs.getString(1)), score);
+          }
+        });
+    log.info("Ranking de notícias em alta restaurado com {} notícias", scores.size());
+  }
+
+  /**
+   * Registra uma visualização aceita.
+   *
+   * @param newsId O ID da notícia.
+   */
+  public void recordView(UUID newsId) {
+    record(newsId, viewWeight);
+  }
+
+  /**
+   * Registra uma curtida ou a remoção de uma curtida.
+   *
+   * @param newsId O ID da notícia.
+   * @param liked true para uma nova curtida, false para uma remoção.
+   */
+  public void recordLike(UUID newsId, boolean liked) {
+    record(newsId, liked ? likeWeight : -likeWeight);
+  }
+
+  /**
+   * Registra um comentário adicionado ou removido.
+   *
+   * @param newsId O ID da notícia.
+   * @param added true para um novo comentário, false para uma remoção.
+   */
+  public void recordComment(UUID newsId, boolean added) {
+    record(newsId, added ? commentWeight : -commentWeight);
+  }
+
+  /**
+   * Retira uma notícia do ranking (ex: após sua exclusão).
+   *
+   * @param newsId O ID da notícia.
+   */
+  public synchronized void remove(UUID newsId) {
+    scores.remove(newsId);
+  }
+
+  /**
+   * Retorna as notícias publicadas com as maiores pontuações atuais.
+   *
+   * @param limit O número de notícias desejado (máximo 50).
+   * @return Os cards, da maior para a menor pontuação.
+   */
+  public List<NewsCardDTO> getTrending(int limit) {
+    int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+    List<UUID> ranked;
+    synchronized (this) {
+      // Busca o dobro para compensar notícias não publicadas ou excluídas
+      ranked = scores.top(size * 2);
+    }
+    if (ranked.isEmpty()) {
+      return List.of();
+    }
+
+    Map<UUID, Integer> rank = new HashMap<>();
+    for (int i = 0; i < ranked.size(); i++) {
+      rank.put(ranked.get(i), i);
+    }
+    return newsRepository.findCardsByIds(ranked, NewsService.STATUS_PUBLISHED).stream()
+        .sorted(Comparator.comparingInt(card -> rank.get(card.getId())))
+        .limit(size)
+        .toList();
+  }
+
+  /** Grava em {@code trending_scores} as pontuações atuais, descartando as desprezíveis. */
+  @Scheduled(fixedDelayString = "${trending.snapshot-interval-ms:60000}")
+  public void snapshot() {
+    long now = System.currentTimeMillis();
+    List<Object[]> rows = new ArrayList<>();
+    synchronized (this) {
+      prune(now);
+      double decay = currentDecay(now);
+      Timestamp scoredAt = new Timestamp(now);
+      scores.forEach(
+          (newsId, stored) -> rows.add(new Object[] {newsId.toString(), stored * decay, scoredAt}));
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            jdbcTemplate.update("DELETE FROM trending_scores");
+            // IGNORE descarta notícias excluídas depois da leitura (chave estrangeira)
+            jdbcTemplate.batchUpdate(
+                "INSERT IGNORE INTO trending_scores (news_id, score, scored_at) VALUES (?, ?, ?)",
+                rows);
+          });
+      snapshots.increment();
+      lastSnapshotRows = rows.size();
+    } catch (DataAccessException e) {
+      snapshotFailures.increment();
+      log.error("Falha ao gravar o retrato do ranking de notícias em alta", e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    snapshot();
+  }
+
+  private void record(UUID newsId, double weight) {
+    long now = System.currentTimeMillis();
+    synchronized (this) {
+      double stored = scores.priority(newsId);
+      if (Double.isNaN(stored)) {
+        // Remoções de notícias fora do ranking não têm efeito; IDs desconhecidos são ignorados
+        if (weight <= 0 || !engagementCounterService.isKnown(newsId) || !hasRoom(now)) {
+          return;
+        }
+        stored = 0;
+      }
+      if (decayPerMilli * (now - landmarkMillis) > RENORMALIZE_EXPONENT) {
+        renormalize(now);
+        stored = scores.priority(newsId);
+        stored = Double.isNaN(stored) ? 0 : stored;
+      }
+      double growth = Math.exp(decayPerMilli * (now - landmarkMillis));
+      scores.set(newsId, Math.max(0, stored + weight * growth));
+    }
+    updates.increment();
+  }
+
+  /** Verifica se uma nova notícia cabe no ranking, descartando as pontuações desprezíveis. */
+  private boolean hasRoom(long now) {
+    if (scores.size() < maxTracked) {
+      return true;
+    }
+    if (now - lastPruneMillis >= PRUNE_THROTTLE_MILLIS) {
+      prune(now);
+    }
+    if (scores.size() < maxTracked) {
+      return true;
+    }
+    dropped.increment();
+    return false;
+  }
+
+  /** Avança o instante de referência para agora, reescalando as pontuações guardadas. */
+  private void renormalize(long now) {
+    // Após um longo período sem eventos o fator pode chegar a zero; o que restar é positivo
+    prune(now);
+    if (scores.size() > 0) {
+      scores.scale(currentDecay(now));
+    }
+    landmarkMillis = now;
+  }
+
+  /** Remove as notícias cuja pontuação atual ficou abaixo do mínimo. */
+  private void prune(long now) {
+    lastPruneMillis = now;
+    double threshold = minScore / currentDecay(now);
+    List<UUID> negligible = new ArrayList<>();
+    scores.forEach(
+        (newsId, stored) -> {
+          if (stored < threshold) {
+            negligible.add(newsId);
+          }
+        });
+    negligible.forEach(scores::remove);
+  }
+
+  /** Fator que converte uma pontuação guardada na pontuação atual. */
+  private double currentDecay(long now) {
+    return Math.exp(-decayPerMilli * (now - landmarkMillis));
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "trending";
+  }
+
+  @Override
+  public synchronized Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("tracked", scores.size());
+    metrics.put("updates", updates.sum());
+    metrics.put("dropped", dropped.sum());
+    metrics.put("snapshots", snapshots.sum());
+    metrics.put("snapshotFailures", snapshotFailures.sum());
+    metrics.put("lastSnapshotRows", lastSnapshotRows);
+    return metrics;
+  }
+}
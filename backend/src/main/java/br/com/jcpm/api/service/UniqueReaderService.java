@@ -0,0 +1,224 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.service.ViewIngestionService.ViewEvent;
+import br.com.jcpm.api.util.Hashing;
+import br.com.jcpm.api.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Contagem probabilística de leitores distintos por notícia e por dia, com sketches HyperLogLog.
+ *
+ * <p>Os sketches são alimentados pelo escritor de visualizações (fora da thread da requisição) e
+ * mantidos em memória enquanto a notícia recebe visitas. Periodicamente, os sketches alterados são
+ * mesclados com a versão persistida em {@code reader_sketches}; como a mescla é idempotente, várias
+ * instâncias podem gravar o mesmo sketch. Sketches ociosos e já persistidos saem da memória, e as
+ * leituras sempre mesclam memória e banco. Cada sketch ocupa {@code 2^precision} bytes.
+ */
+@Service
+public class UniqueReaderService implements MetricsSource {
+
+  private static final Logger log = LoggerFactory.getLogger(UniqueReaderService.class);
+
+  /** Dia sentinela do sketch acumulado de todo o período de uma notícia. */
+  public static final LocalDate ALL_TIME = LocalDate.EPOCH;
+
+  private static final String UPSERT_SKETCH =
+      "INSERT IGNORE INTO reader_sketches (news_id, sketch_day, registers, updated_at) "
+          + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE registers = VALUES(registers), "
+          + "updated_at = VALUES(updated_at)";
+
+  private record SketchKey(UUID newsId, LocalDate day) {}
+
+  private static final class Sketch {
+    private final HyperLogLog hyperLogLog;
+    private volatile boolean dirty;
+    private volatile long lastTouchedMillis;
+
+    Sketch(HyperLogLog hyperLogLog) {
+      this.hyperLogLog = hyperLogLog;
+    }
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int precision;
+  private final long idleEvictionMillis;
+
+  private final Map<SketchKey, Sketch> sketches = new ConcurrentHashMap<>();
+  private final LongAdder persisted = new LongAdder();
+  private final LongAdder persistFailures = new LongAdder();
+  private final LongAdder evicted = new LongAdder();
+
+  public UniqueReaderService(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      @Value("${views.unique.precision:12}") int precision,
+      @Value("${views.unique.idle-eviction-minutes:60}") long idleEvictionMinutes) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.precision = precision;
+    this.idleEvictionMillis = Duration.ofMinutes(idleEvictionMinutes).toMillis();
+  }
+
+  /**
+   * Registra o leitor de uma visualização nos sketches do dia e de todo o período.
+   *
+   * @param event A visualização.
+   */
+  public void record(ViewEvent event) {
+    long hash = Hashing.hash64(event.visitorKey());
+    offer(new SketchKey(event.newsId(), event.viewedAt().toLocalDate()), hash);
+    offer(new SketchKey(event.newsId(), ALL_TIME), hash);
+  }
+
+  private void offer(SketchKey key, long hash) {
+    long now = System.currentTimeMillis();
+    // compute() mantém a inserção atômica em relação ao despejo feito em persist()
+    sketches.compute(
+        key,
+        (k, sketch) -> {
+          Sketch target = sketch != null ? sketch : new Sketch(new HyperLogLog(precision));
+          if (target.hyperLogLog.offerHash(hash)) {
+            target.dirty = true;
+          }
+          target.lastTouchedMillis = now;
+          return target;
+        });
+  }
+
+  /**
+   * Estima os leitores distintos de uma notícia em um intervalo de dias (inclusivo).
+   *
+   * @param newsId O ID da notícia.
+   * @param from O primeiro dia.
+   * @param to O último dia.
+   * @return O número estimado de leitores distintos.
+   */
+  public long countUniqueReaders(UUID newsId, LocalDate from, LocalDate to) {
+    HyperLogLog merged = new HyperLogLog(precision);
+    jdbcTemplate.query(
+        "SELECT registers FROM reader_sketches "
+            + "WHERE news_id = ? AND sketch_day BETWEEN ? AND ?",
+        rs -> mergeStored(merged, rs.getBytes(1)),
+        newsId.toString(),
+        Date.valueOf(from),
+        Date.valueOf(to));
+    for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+      mergeInMemory(merged, new SketchKey(newsId, day));
+    }
+    return merged.cardinality();
+  }
+
+  /**
+   * Estima os leitores distintos de uma notícia desde a publicação.
+   *
+   * @param newsId O ID da notícia.
+   * @return O número estimado de leitores distintos.
+   */
+  public long countAllTimeReaders(UUID newsId) {
+    return countUniqueReaders(newsId, ALL_TIME, ALL_TIME);
+  }
+
+  private void mergeInMemory(HyperLogLog target, SketchKey key) {
+    Sketch sketch = sketches.get(key);
+    if (sketch != null) {
+      target.merge(sketch.hyperLogLog);
+    }
+  }
+
+  private void mergeStored(HyperLogLog target, byte[] registers) {
+    try {
+      target.merge(HyperLogLog.fromBytes(registers));
+    } catch (IllegalArgumentException e) {
+      log.warn("Sketch de leitores ignorado: {}", e.getMessage());
+    }
+  }
+
+  /** Persiste os sketches alterados e remove da memória os que estão ociosos. */
+  @Scheduled(fixedDelayString = "${views.unique.flush-interval-ms:60000}")
+  public synchronized void persist() {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<SketchKey, Sketch> entry : sketches.entrySet()) {
+      SketchKey key = entry.getKey();
+      Sketch sketch = entry.getValue();
+      if (sketch.dirty) {
+        sketch.dirty = false;
+        try {
+          transactionTemplate.executeWithoutResult(status -> persistSketch(key, sketch));
+          persisted.increment();
+        } catch (DataAccessException e) {
+          sketch.dirty = true;
+          persistFailures.increment();
+          log.error("Falha ao persistir sketch de leitores de {}", key, e);
+        }
+      }
+      sketches.computeIfPresent(
+          key,
+          (k, current) -> {
+            if (current.dirty || now - current.lastTouchedMillis < idleEvictionMillis) {
+              return current;
+            }
+            evicted.increment();
+            return null;
+          });
+    }
+  }
+
+  /** Mescla o sketch persistido no sketch em memória e grava o resultado. */
+  private void persistSketch(SketchKey key, Sketch sketch) {
+    List<byte[]> stored =
+        jdbcTemplate.query(
+            "SELECT registers FROM reader_sketches WHERE news_id = ? AND sketch_day = ? "
+                + "FOR UPDATE",
+            (rs, rowNum) -> rs.getBytes(1),
+            key.newsId().toString(),
+            Date.valueOf(key.day()));
+    stored.forEach(registers -> mergeStored(sketch.hyperLogLog, registers));
+    jdbcTemplate.update(
+        UPSERT_SKETCH,
+        key.newsId().toString(),
+        Date.valueOf(key.day()),
+        sketch.hyperLogLog.toBytes(),
+        Timestamp.valueOf(LocalDateTime.now()));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    persist();
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "uniqueReaders";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("sketchesInMemory", sketches.size());
+    metrics.put("bytesPerSketch", 1 << precision);
+    metrics.put("persisted", persisted.sum());
+    metrics.put("persistFailures", persistFailures.sum());
+    metrics.put("evicted", evicted.sum());
+    return metrics;
+  }
+}
@@ -0,0 +1,188 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.domain.enums.UserType;
+import br.com.jcpm.api.exception.BadRequestException;
+import br.com.jcpm.api.dto.UserFilter;
+import br.com.jcpm.api.dto.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exportação da listagem administrativa de usuários em NDJSON ou CSV.
+ *
+ * <p>A tabela é percorrida com um cursor JDBC somente-leitura e somente-avanço em modo streaming
+ * (fetch size {@code Integer.MIN_VALUE} no driver MySQL), e cada linha é escrita diretamente na
+ * saída. O consumo de memória não depende do número de usuários.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+  private static final String CSV_HEADER =
+      "id,username,email,name,userType,ativo,dataCadastro,urlImagemPerfil,biografia";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  /** Formatos de exportação suportados. */
+  public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    /**
+     * Converte o parâmetro recebido do cliente.
+     *
+     * @param value O nome do formato.
+     * @return O formato.
+     * @throws BadRequestException se o formato não for suportado.
+     */
+    public static ExportFormat parse(String value) {
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException("Formato de exportação inválido: " + value, e);
+      }
+    }
+  }
+
+  /**
+   * Escreve os usuários que atendem aos filtros na saída, do cadastro mais recente ao mais antigo.
+   *
+   * @param filter Os filtros.
+   * @param format O formato de saída.
+   * @param out A saída (não é fechada).
+   * @throws IOException se a escrita falhar.
+   */
+  public void export(UserFilter filter, ExportFormat format, OutputStream out) throws IOException {
+    StringBuilder sql =
+        new StringBuilder(
+            "SELECT id, username, email, name, user_type, active, registration_date, "
+                + "profile_image_url, biography FROM users WHERE 1 = 1");
+    List<Object> params = new ArrayList<>();
+    if (filter.userType() != null) {
+      sql.append(" AND user_type = ?");
+      params.add(filter.userType().name());
+    }
+    if (filter.active() != null) {
+      sql.append(" AND active = ?");
+      params.add(filter.active());
+    }
+    if (filter.registeredFrom() != null) {
+      sql.append(" AND registration_date >= ?");
+      params.add(Timestamp.valueOf(filter.registeredFromInclusive()));
+    }
+    if (filter.registeredTo() != null) {
+      sql.append(" AND registration_date < ?");
+      params.add(Timestamp.valueOf(filter.registeredToExclusive()));
+    }
+    sql.append(" ORDER BY registration_date DESC, id DESC");
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == ExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+    try {
+      jdbcTemplate.query(
+          connection -> {
+            PreparedStatement statement =
+                connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < params.size(); i++) {
+              statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+          },
+          rs -> {
+            try {
+              writeRow(writer, format, rs);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+  }
+
+  private void writeRow(Writer writer, ExportFormat format, ResultSet rs)
+      throws IOException, SQLException {
+    UserResponse user = new UserResponse();
+    user.setId(UUID.fromString(rs.getString("id")));
+    user.setUsername(rs.getString("username"));
+    user.setEmail(rs.getString("email"));
+    user.setName(rs.getString("name"));
+    user.setUserType(UserType.valueOf(rs.getString("user_type")));
+    user.setAtivo(rs.getBoolean("active"));
+    Timestamp registrationDate = rs.getTimestamp("registration_date");
+    user.setDataCadastro(registrationDate != null ? registrationDate.toLocalDateTime() : null);
+    user.setUrlImagemPerfil(rs.getString("profile_image_url"));
+    user.setBiografia(rs.getString("biography"));
+
+    if (format == ExportFormat.NDJSON) {
+      writer.write(objectMapper.writeValueAsString(user));
+    } else {
+      writer.write(
+          String.join(
+              ",",
+              csv(user.getId().toString()),
+              csv(user.getUsername()),
+              csv(user.getEmail()),
+              csv(user.getName()),
+              csv(user.getUserType().name()),
+              csv(String.valueOf(user.getAtivo())),
+              csv(user.getDataCadastro() != null ? user.getDataCadastro().toString() : null),
+              csv(user.getUrlImagemPerfil()),
+              csv(user.getBiografia())));
+    }
+    writer.write('\n');
+  }
+
+  /** Escapa um campo CSV (RFC 4180), neutralizando também fórmulas de planilha. */
+  private static String csv(String value) {
+    if (value == null || value.isEmpty()) {
+      return "";
+    }
+    String field = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+    if (field.contains(",") || field.contains("\"") || field.contains("\n")
+        || field.contains("\r")) {
+      return '"' + field.replace("\"", "\"\"") + '"';
+    }
+    return field;
+  }
+}
@@ -2,11 +2,22 @@ package br.com.jcpm.api.service;
 
 import br.com.jcpm.api.domain.entity.User;
 import br.com.jcpm.api.domain.enums.UserType;
+import br.com.jcpm.api.dto.CursorPageDTO;
+import br.com.jcpm.api.dto.UserFilter;
+import br.com.jcpm.api.dto.UserResponse;
 import br.com.jcpm.api.repository.UserRepository;
+import br.com.jcpm.api.security.PrincipalCache;
+import br.com.jcpm.api.security.SecurityEpochService;
+import br.com.jcpm.api.security.UserPrincipal;
+import br.com.jcpm.api.util.CursorCodec;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,12 +31,54 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserService implements UserDetailsService {
 
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final PrincipalCache principalCache;
+  private final SecurityEpochService securityEpochService;
+  private final FollowGraphService followGraphService;
+  private final ProfileService profileService;
+  private final TimelineService timelineService;
+  private final LikeIndexService likeIndexService;
+  private final EngagementService engagementService;
+
+  /**
+   * Contagem de usuários por perfil.
+   *
+   * @param total O total de usuários.
+   * @param byType O total de cada perfil.
+   */
+  public record UserCounts(long total, Map<UserType, Long> byType) {
+
+    public long count(UserType userType) {
+      return byType.getOrDefault(userType, 0L);
+    }
+  }
 
-  public UserService(UserRepository userRepository, @Lazy PasswordEncoder passwordEncoder) {
+  // Retrato das contagens, descartado a cada escrita e recalculado na próxima leitura
+  private volatile UserCounts userCounts;
+  private final AtomicLong userWrites = new AtomicLong();
+
+  public UserService(
+      UserRepository userRepository,
+      @Lazy PasswordEncoder passwordEncoder,
+      PrincipalCache principalCache,
+      SecurityEpochService securityEpochService,
+      FollowGraphService followGraphService,
+      ProfileService profileService,
+      TimelineService timelineService,
+      LikeIndexService likeIndexService,
+      EngagementService engagementService) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.principalCache = principalCache;
+    this.securityEpochService = securityEpochService;
+    this.followGraphService = followGraphService;
+    this.profileService = profileService;
+    this.timelineService = timelineService;
+    this.likeIndexService = likeIndexService;
+    this.engagementService = engagementService;
   }
 
   @Override
@@ -45,7 +98,9 @@ public class UserService implements UserDetailsService {
       }
     }
     user.setPassword(passwordEncoder.encode(user.getPassword()));
-    return userRepository.save(user);
+    User saved = userRepository.save(user);
+    invalidateUserCounts();
+    return saved;
   }
 
   public List<User> findAll() {
@@ -68,21 +123,95 @@ public class UserService implements UserDetailsService {
     return userRepository.existsByEmail(email);
   }
 
+  /**
+   * Atualiza um usuário. Se o perfil mudou ou a conta foi desativada, os tokens já emitidos são
+   * revogados.
+   *
+   * @param user O usuário alterado.
+   * @return O usuário salvo.
+   */
   public User update(User user) {
-    return userRepository.save(user);
+    Optional<UserPrincipal> before =
+        user.getId() != null ? userRepository.findPrincipalById(user.getId()) : Optional.empty();
+    User updated = userRepository.save(user);
+    if (before.isPresent()
+        && (before.get().userType() != updated.getUserType()
+            || (before.get().active() && !Boolean.TRUE.equals(updated.getActive())))) {
+      securityEpochService.bump(updated.getId());
+    }
+    principalCache.invalidate(updated.getId());
+    profileService.invalidate(updated.getId());
+    invalidateUserCounts();
+    return updated;
   }
 
   public void deleteById(UUID id) {
     if (!userRepository.existsById(id)) {
       throw new UsernameNotFoundException("Usuário não encontrado com ID: " + id);
     }
+    // Antes da exclusão: a cascata do banco não atualiza os contadores das notícias
+    engagementService.removeUserEngagement(id);
     userRepository.deleteById(id);
+    followGraphService.removeUser(id);
+    timelineService.removeUser(id);
+    likeIndexService.invalidate(id);
+    securityEpochService.bump(id);
+    principalCache.invalidate(id);
+    profileService.invalidate(id);
+    invalidateUserCounts();
   }
 
-  public List<User> findByUserType(UserType userType) {
-    return userRepository.findAll().stream()
-        .filter(user -> user.getUserType().equals(userType))
-        .toList();
+  /**
+   * Busca usuários com filtros opcionais, paginando por keyset sobre (registrationDate, id).
+   *
+   * @param filter Os filtros.
+   * @param cursor O cursor da página anterior, ou null para a primeira página.
+   * @param size O número de usuários desejado.
+   * @return A página de usuários e o cursor da próxima página.
+   */
+  public CursorPageDTO<UserResponse> search(UserFilter filter, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+    List<User> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows =
+          userRepository.searchFirstPage(
+              filter.userType(),
+              filter.active(),
+              filter.registeredFromInclusive(),
+              filter.registeredToExclusive(),
+              limit);
+    } else {
+      CursorCodec.Cursor position = CursorCodec.decode(cursor);
+      rows =
+          userRepository.searchPageAfter(
+              filter.userType(),
+              filter.active(),
+              filter.registeredFromInclusive(),
+              filter.registeredToExclusive(),
+              position.timestamp(),
+              position.id(),
+              limit);
+    }
+
+    return CursorPageDTO.fromRows(
+        rows.stream().map(UserResponse::new).toList(),
+        pageSize,
+        user -> CursorCodec.encode(user.getDataCadastro(), user.getId()));
+  }
+
+  /**
+   * Busca uma página de usuários de um perfil, dos mais recentes para os mais antigos.
+   *
+   * @param userType O perfil.
+   * @param page O número da página (a partir de 0).
+   * @param size O tamanho da página.
+   * @return Os usuários da página.
+   */
+  public List<User> findByUserType(UserType userType, int page, int size) {
+    return userRepository.findByUserTypeOrderByRegistrationDateDesc(
+        userType, PageRequest.of(page, size));
   }
 
   public User activateUser(UUID id) {
@@ -91,7 +220,9 @@ public class UserService implements UserDetailsService {
             .orElseThrow(
                 () -> new UsernameNotFoundException("Usuário não encontrado com ID: " + id));
     user.setActive(true);
-    return userRepository.save(user);
+    User updated = userRepository.save(user);
+    principalCache.invalidate(id);
+    return updated;
   }
 
   public User deactivateUser(UUID id) {
@@ -100,16 +231,49 @@ public class UserService implements UserDetailsService {
             .orElseThrow(
                 () -> new UsernameNotFoundException("Usuário não encontrado com ID: " + id));
     user.setActive(false);
-    return userRepository.save(user);
+    User updated = userRepository.save(user);
+    securityEpochService.bump(id);
+    principalCache.invalidate(id);
+    return updated;
+  }
+
+  /**
+   * Obtém a contagem de usuários por perfil. O resultado vem de uma consulta agregada e fica em
+   * memória até a próxima escrita de usuário.
+   *
+   * @return As contagens.
+   */
+  public UserCounts getUserCounts() {
+    UserCounts snapshot = userCounts;
+    if (snapshot != null) {
+      return snapshot;
+    }
+    long writesBefore = userWrites.get();
+    Map<UserType, Long> byType = new EnumMap<>(UserType.class);
+    long total = 0;
+    for (UserRepository.UserTypeCount row : userRepository.countGroupedByUserType()) {
+      byType.put(row.getUserType(), row.getTotal());
+      total += row.getTotal();
+    }
+    snapshot = new UserCounts(total, Map.copyOf(byType));
+    // Publica e confere depois: uma escrita durante a consulta descarta o retrato
+    userCounts = snapshot;
+    if (userWrites.get() != writesBefore) {
+      userCounts = null;
+    }
+    return snapshot;
   }
 
   public long countUsers() {
-    return userRepository.count();
+    return getUserCounts().total();
   }
 
   public long countUsersByType(UserType userType) {
-    return userRepository.findAll().stream()
-        .filter(user -> user.getUserType().equals(userType))
-        .count();
+    return getUserCounts().count(userType);
+  }
+
+  private void invalidateUserCounts() {
+    userWrites.incrementAndGet();
+    userCounts = null;
   }
 }
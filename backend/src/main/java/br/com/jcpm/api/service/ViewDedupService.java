@@ -0,0 +1,145 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.service.ViewIngestionService.ViewEvent;
+import br.com.jcpm.api.util.BloomFilter;
+import br.com.jcpm.api.util.Hashing;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Supressão de visualizações repetidas do mesmo leitor na mesma notícia dentro de uma janela de
+ * tempo, sem consultas ao banco de dados.
+ *
+ * <p>A janela é coberta por uma sequência de filtros de Bloom (gerações). As inserções vão para a
+ * geração mais nova e a consulta verifica todas; a cada {@code janela / (gerações - 1)} a geração
+ * mais antiga é descartada e uma nova é criada. Assim, uma visualização é lembrada por pelo menos
+ * a janela configurada e no máximo uma geração a mais. Falsos positivos descartam uma visualização
+ * legítima, nunca contam uma repetida.
+ */
+@Service
+public class ViewDedupService implements MetricsSource {
+
+  private final boolean enabled;
+  private final Duration window;
+  private final long rotationIntervalMillis;
+  private final long expectedInsertions;
+  private final double falsePositiveRate;
+
+  /** Gerações da mais nova (índice 0) para a mais antiga; substituído por inteiro na rotação. */
+  private volatile BloomFilter[] generations;
+  private volatile long nextRotationMillis;
+
+  private final LongAdder checked = new LongAdder();
+  private final LongAdder suppressed = new LongAdder();
+  private final LongAdder rotations = new LongAdder();
+
+  public ViewDedupService(
+      @Value("${views.dedup.enabled:true}") boolean enabled,
+      @Value("${views.dedup.window-seconds:1800}") long windowSeconds,
+      @Value("${views.dedup.generations:3}") int generationCount,
+      @Value("${views.dedup.expected-insertions:200000}") long expectedInsertions,
+      @Value("${views.dedup.false-positive-rate:0.001}") double falsePositiveRate) {
+    if (generationCount < 2) {
+      throw new IllegalArgumentException("views.dedup.generations deve ser pelo menos 2");
+    }
+    this.enabled = enabled;
+    this.window = Duration.ofSeconds(windowSeconds);
+    this.rotationIntervalMillis = window.toMillis() / (generationCount - 1);
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+    BloomFilter[] initial = new BloomFilter[enabled ? generationCount : 0];
+    for (int i = 0; i < initial.length; i++) {
+      initial[i] = newGeneration();
+    }
+    this.generations = initial;
+    this.nextRotationMillis = System.currentTimeMillis() + rotationIntervalMillis;
+  }
+
+  /**
+   * Registra a visualização no filtro e indica se é a primeira do leitor na notícia dentro da
+   * janela.
+   *
+   * @param event A visualização.
+   * @return true se a visualização deve ser contada, false se é uma repetição.
+   */
+  public boolean firstWithinWindow(ViewEvent event) {
+    if (!enabled) {
+      return true;
+    }
+    checked.increment();
+    rotateIfDue();
+    long hash = Hashing.hash64(event.newsId() + "|" + event.visitorKey());
+    BloomFilter[] current = generations;
+    for (int i = 1; i < current.length; i++) {
+      if (current[i].mightContain(hash)) {
+        suppressed.increment();
+        return false;
+      }
+    }
+    if (!current[0].put(hash)) {
+      suppressed.increment();
+      return false;
+    }
+    return true;
+  }
+
+  private void rotateIfDue() {
+    if (System.currentTimeMillis() < nextRotationMillis) {
+      return;
+    }
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      if (now < nextRotationMillis) {
+        return;
+      }
+      BloomFilter[] current = generations;
+      BloomFilter[] rotated = new BloomFilter[current.length];
+      rotated[0] = newGeneration();
+      System.arraycopy(current, 0, rotated, 1, current.length - 1);
+      generations = rotated;
+      nextRotationMillis = now + rotationIntervalMillis;
+      rotations.increment();
+    }
+  }
+
+  private BloomFilter newGeneration() {
+    return new BloomFilter(expectedInsertions, falsePositiveRate);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "viewDedup";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    BloomFilter[] current = generations;
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", enabled);
+    metrics.put("windowSeconds", window.toSeconds());
+    metrics.put("generations", current.length);
+    metrics.put("configuredFalsePositiveRate", falsePositiveRate);
+    metrics.put("expectedInsertionsPerGeneration", expectedInsertions);
+    if (current.length > 0) {
+      // Uma repetição é falsamente acusada se qualquer geração responder positivo
+      double notFalsePositive = 1;
+      long memoryBytes = 0;
+      for (BloomFilter filter : current) {
+        notFalsePositive *= 1 - filter.expectedFalsePositiveRate();
+        memoryBytes += filter.sizeInBytes();
+      }
+      metrics.put("estimatedFalsePositiveRate", 1 - notFalsePositive);
+      metrics.put("bitsPerGeneration", current[0].getBitCount());
+      metrics.put("hashFunctions", current[0].getHashFunctions());
+      metrics.put("memoryBytes", memoryBytes);
+    }
+    metrics.put("checked", checked.sum());
+    metrics.put("suppressed", suppressed.sum());
+    metrics.put("rotations", rotations.sum());
+    return metrics;
+  }
+}
@@ -0,0 +1,249 @@
+package br.com.jcpm.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serviço de ingestão assíncrona (write-behind) de visualizações.
+ *
+ * <p>As visualizações são aceitas em uma fila em memória limitada e sem bloqueio, e um único
+ * escritor em segundo plano as grava na tabela {@code views} em lotes de INSERT com múltiplas
+ * linhas. Quando a fila está cheia, a visualização é recusada e contabilizada como descartada. Os
+ * eventos pendentes são gravados no desligamento da aplicação.
+ */
+@Service
+public class ViewIngestionService implements MetricsSource {
+
+  private static final Logger log = LoggerFactory.getLogger(ViewIngestionService.class);
+
+  private static final int USER_AGENT_MAX_LENGTH = 255;
+  private static final int IP_ADDRESS_MAX_LENGTH = 45;
+  private static final String INSERT_PREFIX =
+      "INSERT IGNORE INTO views (id, viewed_at, user_id, news_id, ip_address, user_agent) VALUES ";
+  private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+
+  /**
+   * Uma visualização aceita e ainda não gravada.
+   *
+   * @param newsId O ID da notícia.
+   * @param userId O ID do usuário autenticado, ou null para anônimos.
+   * @param ipAddress O IP do cliente.
+   * @param userAgent O User-Agent do cliente.
+   * @param viewedAt O instante da visualização.
+   */
+  public record ViewEvent(
+      UUID newsId, UUID userId, String ipAddress, String userAgent, LocalDateTime viewedAt) {
+
+    /**
+     * Identifica o leitor: o usuário autenticado ou, para anônimos, a combinação de IP e
+     * User-Agent.
+     *
+     * @return A chave do leitor.
+     */
+    public String visitorKey() {
+      return userId != null ? "u:" + userId : "a:" + ipAddress + "|" + userAgent;
+    }
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+  private final UniqueReaderService uniqueReaderService;
+  private final EngagementCounterService engagementCounterService;
+  private final int capacity;
+  private final int batchSize;
+  private final long flushIntervalMs;
+
+  private final ConcurrentLinkedQueue<ViewEvent> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final ScheduledExecutorService writer =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "view-writer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder written = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+
+  public ViewIngestionService(
+      JdbcTemplate jdbcTemplate,
+      UniqueReaderService uniqueReaderService,
+      EngagementCounterService engagementCounterService,
+      @Value("${views.ingest.capacity:100000}") int capacity,
+      @Value("${views.ingest.batch-size:500}") int batchSize,
+      @Value("${views.ingest.flush-interval-ms:1000}") long flushIntervalMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.uniqueReaderService = uniqueReaderService;
+    this.engagementCounterService = engagementCounterService;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
+  @PostConstruct
+  void start() {
+    writer.scheduleWithFixedDelay(
+        this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Grava os eventos restantes antes de a aplicação encerrar.
+   *
+   * @throws InterruptedException se a espera pelo escritor for interrompida.
+   */
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    writer.shutdown();
+    writer.awaitTermination(10, TimeUnit.SECONDS);
+    flush();
+  }
+
+  /**
+   * Reserva uma vaga na fila, sem acessar o banco de dados. Reservar antes de qualquer outro
+   * efeito (ex: a deduplicação) garante que um evento recusado por falta de espaço possa ser
+   * reenviado.
+   *
+   * @return true se a vaga foi reservada, false se a fila estava cheia.
+   */
+  boolean reserve() {
+    if (queued.incrementAndGet() > capacity) {
+      queued.decrementAndGet();
+      dropped.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /** Devolve uma vaga reservada que não será usada. */
+  void release() {
+    queued.decrementAndGet();
+  }
+
+  /**
+   * Enfileira uma visualização em uma vaga já reservada com {@link #reserve()}.
+   *
+   * @param event A visualização.
+   */
+  void enqueue(ViewEvent event) {
+    queue.offer(event);
+    accepted.increment();
+  }
+
+  private void flushSafely() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Falha inesperada ao gravar lote de visualizações", e);
+    }
+  }
+
+  /** Esvazia a fila gravando os eventos em lotes de até {@code batchSize} linhas. */
+  void flush() {
+    List<ViewEvent> batch = new ArrayList<>(batchSize);
+    while (true) {
+      ViewEvent event;
+      while (batch.size() < batchSize && (event = queue.poll()) != null) {
+        batch.add(event);
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      queued.addAndGet(-batch.size());
+      insertBatch(batch);
+      for (ViewEvent viewed : batch) {
+        // Cada notícia nova custa dois sketches; IDs desconhecidos ou já excluídos não entram
+        if (engagementCounterService.isKnown(viewed.newsId())) {
+          uniqueReaderService.record(viewed);
+        }
+      }
+      batch.clear();
+    }
+  }
+
+  /**
+   * Grava um lote com um único INSERT de múltiplas linhas. O IGNORE descarta linhas que violam
+   * chaves estrangeiras (ex: notícia removida) sem invalidar o restante do lote.
+   */
+  private void insertBatch(List<ViewEvent> batch) {
+    StringBuilder sql =
+        new StringBuilder(INSERT_PREFIX.length() + batch.size() * (ROW_PLACEHOLDER.length() + 1));
+    sql.append(INSERT_PREFIX);
+    for (int i = 0; i < batch.size(); i++) {
+      sql.append(i == 0 ? "" : ",").append(ROW_PLACEHOLDER);
+    }
+
+    try {
+      int rows =
+          jdbcTemplate.update(
+              connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString());
+                bindBatch(statement, batch);
+                return statement;
+              });
+      written.add(rows);
+      batches.increment();
+    } catch (DataAccessException e) {
+      failed.add(batch.size());
+      log.error("Falha ao gravar lote de {} visualizações", batch.size(), e);
+    }
+  }
+
+  private static void bindBatch(PreparedStatement statement, List<ViewEvent> batch)
+      throws SQLException {
+    int index = 1;
+    for (ViewEvent event : batch) {
+      statement.setString(index++, UUID.randomUUID().toString());
+      statement.setTimestamp(index++, Timestamp.valueOf(event.viewedAt()));
+      statement.setString(index++, event.userId() != null ? event.userId().toString() : null);
+      statement.setString(index++, event.newsId().toString());
+      statement.setString(index++, truncate(event.ipAddress(), IP_ADDRESS_MAX_LENGTH));
+      statement.setString(index++, truncate(event.userAgent(), USER_AGENT_MAX_LENGTH));
+    }
+  }
+
+  private static String truncate(String value, int maxLength) {
+    return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "viewIngestion";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("queued", queued.get());
+    metrics.put("capacity", capacity);
+    metrics.put("accepted", accepted.sum());
+    metrics.put("dropped", dropped.sum());
+    metrics.put("written", written.sum());
+    metrics.put("failed", failed.sum());
+    metrics.put("batches", batches.sum());
+    return metrics;
+  }
+}
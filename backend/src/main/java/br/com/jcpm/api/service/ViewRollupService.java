@@ -0,0 +1,187 @@
+package br.com.jcpm.api.service;
+
+import br.com.jcpm.api.domain.entity.RollupWatermark;
+import br.com.jcpm.api.repository.RollupWatermarkRepository;
+import br.com.jcpm.api.repository.ViewRepository;
+import br.com.jcpm.api.repository.ViewRollupRepository;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compacta incrementalmente as visualizações brutas em agregados por (notícia, dia, hora).
+ *
+ * <p>O job avança uma marca d'água: cada execução agrega as visualizações no intervalo
+ * [marca, limite) e move a marca para o limite na mesma transação, de modo que uma falha no meio
+ * do processo não gera dupla contagem e a próxima execução continua de onde parou. O limite fica
+ * sempre um atraso configurável antes do instante atual, para acomodar as visualizações ainda na
+ * fila de ingestão. Sem marca d'água, o job começa pela visualização mais antiga (backfill) e
+ * avança em blocos de tamanho limitado.
+ */
+@Service
+public class ViewRollupService implements MetricsSource {
+
+  private static final Logger log = LoggerFactory.getLogger(ViewRollupService.class);
+
+  static final String JOB_NAME = "views-hourly";
+
+  private static final String ROLLUP_SQL =
+      "INSERT INTO view_rollups (news_id, view_day, view_hour, view_count) "
+          + "SELECT news_id, DATE(viewed_at), HOUR(viewed_at), COUNT(*) FROM views "
+          + "WHERE viewed_at >= ? AND viewed_at < ? "
+          + "GROUP BY news_id, DATE(viewed_at), HOUR(viewed_at) "
+          + "ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ViewRepository viewRepository;
+  private final ViewRollupRepository viewRollupRepository;
+  private final RollupWatermarkRepository rollupWatermarkRepository;
+  private final Duration lag;
+  private final Duration chunk;
+
+  private final LongAdder runs = new LongAdder();
+  private final LongAdder chunks = new LongAdder();
+  private final LongAdder rolledUpRows = new LongAdder();
+  private volatile LocalDateTime lastHighWater;
+
+  public ViewRollupService(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      ViewRepository viewRepository,
+      ViewRollupRepository viewRollupRepository,
+      RollupWatermarkRepository rollupWatermarkRepository,
+      @Value("${views.rollup.lag-seconds:300}") long lagSeconds,
+      @Value("${views.rollup.chunk-hours:24}") long chunkHours) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.viewRepository = viewRepository;
+    this.viewRollupRepository = viewRollupRepository;
+    this.rollupWatermarkRepository = rollupWatermarkRepository;
+    this.lag = Duration.ofSeconds(lagSeconds);
+    this.chunk = Duration.ofHours(chunkHours);
+  }
+
+  /** Executa blocos de compactação até alcançar o limite atual. */
+  @Scheduled(
+      initialDelayString = "${views.rollup.interval-ms:60000}",
+      fixedDelayString = "${views.rollup.interval-ms:60000}")
+  public void compact() {
+    runs.increment();
+    try {
+      while (Boolean.TRUE.equals(transactionTemplate.execute(status -> compactChunk()))) {
+        chunks.increment();
+      }
+    } catch (RuntimeException e) {
+      log.error("Falha na compactação de visualizações; será retomada na próxima execução", e);
+    }
+  }
+
+  /**
+   * Agrega um bloco de visualizações dentro da transação corrente.
+   *
+   * @return true se a marca d'água avançou.
+   */
+  private boolean compactChunk() {
+    jdbcTemplate.update(
+        "INSERT IGNORE INTO rollup_watermarks (job_name, high_water) "
+            + "SELECT ?, COALESCE(MIN(viewed_at), NOW()) FROM views",
+        JOB_NAME);
+    LocalDateTime highWater =
+        jdbcTemplate.queryForObject(
+            "SELECT high_water FROM rollup_watermarks WHERE job_name = ? FOR UPDATE",
+            LocalDateTime.class,
+            JOB_NAME);
+
+    LocalDateTime limit = LocalDateTime.now().minus(lag).truncatedTo(ChronoUnit.SECONDS);
+    LocalDateTime next = highWater.plus(chunk);
+    if (next.isAfter(limit)) {
+      next = limit;
+    }
+    if (!next.isAfter(highWater)) {
+      lastHighWater = highWater;
+      return false;
+    }
+
+    int rows =
+        jdbcTemplate.update(ROLLUP_SQL, Timestamp.valueOf(highWater), Timestamp.valueOf(next));
+    jdbcTemplate.update(
+        "UPDATE rollup_watermarks SET high_water = ? WHERE job_name = ?",
+        Timestamp.valueOf(next),
+        JOB_NAME);
+    rolledUpRows.add(rows);
+    lastHighWater = next;
+    return true;
+  }
+
+  /**
+   * Retorna a série diária de visualizações de uma notícia: agregados compactados somados à cauda
+   * de visualizações brutas posteriores à marca d'água.
+   *
+   * <p>As três leituras (marca d'água, agregados e cauda) usam o mesmo snapshot consistente
+   * (REPEATABLE READ). Como a compactação move a marca e grava os agregados na mesma transação,
+   * nenhum intervalo é contado duas vezes nem omitido quando ela avança durante a consulta.
+   *
+   * @param newsId O ID da notícia.
+   * @return Uma lista de mapas com "date" e "views", em ordem cronológica.
+   */
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public List<Map<String, Object>> getDailyViews(UUID newsId) {
+    LocalDateTime highWater =
+        rollupWatermarkRepository
+            .findById(JOB_NAME)
+            .map(RollupWatermark::getHighWater)
+            .orElse(null);
+
+    TreeMap<LocalDate, Long> days = new TreeMap<>();
+    if (highWater != null) {
+      viewRollupRepository.sumViewsByDay(newsId).forEach(row -> merge(days, row));
+    }
+    LocalDateTime tailStart = highWater != null ? highWater : LocalDateTime.of(1970, 1, 1, 0, 0);
+    viewRepository.countViewsByDaySince(newsId, tailStart).forEach(row -> merge(days, row));
+
+    List<Map<String, Object>> series = new ArrayList<>(days.size());
+    days.forEach((date, views) -> series.add(Map.of("date", date, "views", views)));
+    return series;
+  }
+
+  private static void merge(TreeMap<LocalDate, Long> days, Map<String, Object> row) {
+    Object date = row.get("date");
+    LocalDate day = date instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) date;
+    days.merge(day, ((Number) row.get("views")).longValue(), Long::sum);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "viewRollup";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("runs", runs.sum());
+    metrics.put("chunks", chunks.sum());
+    metrics.put("rolledUpRows", rolledUpRows.sum());
+    metrics.put("highWater", lastHighWater);
+    return metrics;
+  }
+}
@@ -0,0 +1,32 @@
+package br.com.jcpm.api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia a atualização de estruturas em memória até o commit da transação corrente, para que um
+ * rollback não deixe caches e contadores divergentes do banco.
+ */
+public final class AfterCommit {
+
+  private AfterCommit() {}
+
+  /**
+   * Executa a ação após o commit da transação ativa, ou imediatamente se não houver transação.
+   *
+   * @param action A ação a ser executada.
+   */
+  public static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
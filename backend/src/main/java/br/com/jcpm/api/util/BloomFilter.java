@@ -0,0 +1,116 @@
+package br.com.jcpm.api.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de tamanho fixo, seguro para uso concorrente sem bloqueio.
+ *
+ * <p>O tamanho e o número de funções de hash são calculados a partir do número esperado de
+ * inserções e da taxa de falsos positivos desejada. As posições são derivadas de um único hash de
+ * 64 bits por hashing duplo (Kirsch-Mitzenmacher).
+ */
+public final class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashFunctions;
+  private final AtomicLong bitsSet = new AtomicLong();
+
+  /**
+   * Cria um filtro dimensionado para a carga esperada.
+   *
+   * @param expectedInsertions O número esperado de elementos.
+   * @param falsePositiveRate A taxa de falsos positivos desejada (entre 0 e 1, exclusivos).
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("O número esperado de inserções deve ser positivo");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("A taxa de falsos positivos deve estar entre 0 e 1");
+    }
+    long bits =
+        (long)
+            Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int wordCount = (int) Math.max(1, (bits + 63) / 64);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = (long) wordCount * 64;
+    this.hashFunctions =
+        Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+  }
+
+  /**
+   * Indica se o elemento pode ter sido inserido (sem falsos negativos).
+   *
+   * @param hash O hash de 64 bits do elemento.
+   * @return false se o elemento certamente não foi inserido.
+   */
+  public boolean mightContain(long hash) {
+    long h1 = hash;
+    long h2 = Hashing.mix64(hash) | 1;
+    for (int i = 0; i < hashFunctions; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bitCount);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Insere o elemento.
+   *
+   * @param hash O hash de 64 bits do elemento.
+   * @return true se algum bit mudou, isto é, se o elemento certamente não estava presente.
+   */
+  public boolean put(long hash) {
+    long h1 = hash;
+    long h2 = Hashing.mix64(hash) | 1;
+    boolean changed = false;
+    for (int i = 0; i < hashFunctions; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bitCount);
+      int index = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long word;
+      do {
+        word = words.get(index);
+        if ((word & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(index, word, word | mask));
+      if ((word & mask) == 0) {
+        bitsSet.incrementAndGet();
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Estima a taxa de falsos positivos atual a partir da fração de bits ligados.
+   *
+   * @return A taxa estimada.
+   */
+  public double expectedFalsePositiveRate() {
+    return Math.pow((double) bitsSet.get() / bitCount, hashFunctions);
+  }
+
+  public long getBitCount() {
+    return bitCount;
+  }
+
+  public int getHashFunctions() {
+    return hashFunctions;
+  }
+
+  /**
+   * Retorna a memória ocupada pelos bits do filtro.
+   *
+   * @return O tamanho em bytes.
+   */
+  public long sizeInBytes() {
+    return bitCount / 8;
+  }
+}
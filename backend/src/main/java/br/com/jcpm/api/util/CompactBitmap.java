@@ -0,0 +1,299 @@
+package br.com.jcpm.api.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto compacto de inteiros não negativos no estilo Roaring.
+ *
+ * <p>Os valores são particionados pelos 16 bits altos. Cada partição guarda os 16 bits baixos em
+ * um vetor ordenado enquanto tiver até 4096 valores (2 bytes por valor) e em um mapa de 65536 bits
+ * (8 KB) acima disso, o que mantém conjuntos esparsos pequenos e conjuntos densos com tamanho
+ * fixo. A interseção opera partição a partição. Não é segura para uso concorrente.
+ */
+public final class CompactBitmap {
+
+  private static final int ARRAY_MAX = 4096;
+  private static final int BITMAP_WORDS = 1024;
+
+  private char[] keys = new char[0];
+  private Container[] containers = new Container[0];
+  private int size;
+
+  /**
+   * Adiciona um valor.
+   *
+   * @param value O valor (não negativo).
+   * @return true se o valor não estava presente.
+   */
+  public boolean add(int value) {
+    checkValue(value);
+    char key = (char) (value >>> 16);
+    int index = Arrays.binarySearch(keys, 0, size, key);
+    if (index < 0) {
+      index = -index - 1;
+      insertContainer(index, key, new Container());
+    }
+    return containers[index].add((char) value);
+  }
+
+  /**
+   * Remove um valor.
+   *
+   * @param value O valor.
+   * @return true se o valor estava presente.
+   */
+  public boolean remove(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+    if (index < 0 || !containers[index].remove((char) value)) {
+      return false;
+    }
+    if (containers[index].cardinality == 0) {
+      removeContainer(index);
+    }
+    return true;
+  }
+
+  /**
+   * Verifica se um valor está presente.
+   *
+   * @param value O valor.
+   * @return true se presente.
+   */
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+    return index >= 0 && containers[index].contains((char) value);
+  }
+
+  /**
+   * Calcula a interseção com outro conjunto, sem alterar nenhum dos dois.
+   *
+   * @param other O outro conjunto.
+   * @return Um novo conjunto com os valores presentes em ambos.
+   */
+  public CompactBitmap and(CompactBitmap other) {
+    CompactBitmap result = new CompactBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < size && j < other.size) {
+      if (keys[i] < other.keys[j]) {
+        i++;
+      } else if (keys[i] > other.keys[j]) {
+        j++;
+      } else {
+        Container intersection = containers[i].and(other.containers[j]);
+        if (intersection.cardinality > 0) {
+          result.insertContainer(result.size, keys[i], intersection);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Percorre os valores em ordem crescente.
+   *
+   * @param action A ação aplicada a cada valor.
+   */
+  public void forEach(IntConsumer action) {
+    for (int i = 0; i < size; i++) {
+      int high = keys[i] << 16;
+      containers[i].forEach(low -> action.accept(high | low));
+    }
+  }
+
+  /** Retorna o número de valores. */
+  public long cardinality() {
+    long cardinality = 0;
+    for (int i = 0; i < size; i++) {
+      cardinality += containers[i].cardinality;
+    }
+    return cardinality;
+  }
+
+  /** Retorna true se o conjunto está vazio. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Estima a memória ocupada, em bytes. */
+  public long sizeInBytes() {
+    long bytes = 32L + keys.length * 2L + containers.length * 8L;
+    for (int i = 0; i < size; i++) {
+      bytes += containers[i].sizeInBytes();
+    }
+    return bytes;
+  }
+
+  private void insertContainer(int index, char key, Container container) {
+    if (size == keys.length) {
+      int capacity = Math.max(4, size * 2);
+      keys = Arrays.copyOf(keys, capacity);
+      containers = Arrays.copyOf(containers, capacity);
+    }
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    System.arraycopy(containers, index, containers, index + 1, size - index);
+    keys[index] = key;
+    containers[index] = container;
+    size++;
+  }
+
+  private void removeContainer(int index) {
+    System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+    System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+    size--;
+    containers[size] = null;
+  }
+
+  private static void checkValue(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Valores do bitmap devem ser não negativos: " + value);
+    }
+  }
+
+  /**
+   * Partição de 65536 valores: vetor ordenado ({@code array}) ou mapa de bits ({@code words}).
+   */
+  private static final class Container {
+    private char[] array = new char[4];
+    private long[] words;
+    private int cardinality;
+
+    boolean contains(char low) {
+      if (words != null) {
+        return (words[low >>> 6] & (1L << low)) != 0;
+      }
+      return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+    }
+
+    boolean add(char low) {
+      if (words != null) {
+        long bit = 1L << low;
+        if ((words[low >>> 6] & bit) != 0) {
+          return false;
+        }
+        words[low >>> 6] |= bit;
+        cardinality++;
+        return true;
+      }
+      int index = Arrays.binarySearch(array, 0, cardinality, low);
+      if (index >= 0) {
+        return false;
+      }
+      if (cardinality == ARRAY_MAX) {
+        toWords();
+        return add(low);
+      }
+      index = -index - 1;
+      if (cardinality == array.length) {
+        array = Arrays.copyOf(array, Math.min(ARRAY_MAX, array.length * 2));
+      }
+      System.arraycopy(array, index, array, index + 1, cardinality - index);
+      array[index] = low;
+      cardinality++;
+      return true;
+    }
+
+    boolean remove(char low) {
+      if (words != null) {
+        long bit = 1L << low;
+        if ((words[low >>> 6] & bit) == 0) {
+          return false;
+        }
+        words[low >>> 6] &= ~bit;
+        cardinality--;
+        if (cardinality <= ARRAY_MAX) {
+          toArray();
+        }
+        return true;
+      }
+      int index = Arrays.binarySearch(array, 0, cardinality, low);
+      if (index < 0) {
+        return false;
+      }
+      System.arraycopy(array, index + 1, array, index, cardinality - index - 1);
+      cardinality--;
+      return true;
+    }
+
+    Container and(Container other) {
+      Container result = new Container();
+      if (words != null && other.words != null) {
+        long[] intersection = new long[BITMAP_WORDS];
+        int count = 0;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+          intersection[i] = words[i] & other.words[i];
+          count += Long.bitCount(intersection[i]);
+        }
+        result.words = intersection;
+        result.array = null;
+        result.cardinality = count;
+        if (count <= ARRAY_MAX) {
+          result.toArray();
+        }
+        return result;
+      }
+      // Ao menos um lado é vetor: percorre o menor e consulta o outro
+      Container small =
+          words != null || (other.words == null && other.cardinality < cardinality) ? other : this;
+      Container large = small == this ? other : this;
+      result.array = new char[Math.max(4, small.cardinality)];
+      for (int i = 0; i < small.cardinality; i++) {
+        if (large.contains(small.array[i])) {
+          result.array[result.cardinality++] = small.array[i];
+        }
+      }
+      return result;
+    }
+
+    void forEach(IntConsumer action) {
+      if (words == null) {
+        for (int i = 0; i < cardinality; i++) {
+          action.accept(array[i]);
+        }
+        return;
+      }
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long word = words[i];
+        while (word != 0) {
+          action.accept(i * 64 + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    long sizeInBytes() {
+      return 24L + (words != null ? BITMAP_WORDS * 8L : array.length * 2L);
+    }
+
+    private void toWords() {
+      words = new long[BITMAP_WORDS];
+      for (int i = 0; i < cardinality; i++) {
+        words[array[i] >>> 6] |= 1L << array[i];
+      }
+      array = null;
+    }
+
+    private void toArray() {
+      char[] values = new char[Math.max(4, cardinality)];
+      int count = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long word = words[i];
+        while (word != 0) {
+          values[count++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      array = values;
+      words = null;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package br.com.jcpm.api.util;
+
+import br.com.jcpm.api.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Codifica e decodifica cursores opacos para paginação por keyset no formato (timestamp, id).
+ */
+public final class CursorCodec {
+
+  private static final char SEPARATOR = '|';
+
+  private CursorCodec() {}
+
+  /**
+   * Posição decodificada de um cursor.
+   *
+   * @param timestamp O valor da coluna temporal da última linha retornada.
+   * @param id O ID da última linha retornada, usado como desempate.
+   */
+  public record Cursor(LocalDateTime timestamp, UUID id) {}
+
+  /**
+   * Gera um cursor opaco a partir da última linha de uma página.
+   *
+   * @param timestamp O valor da coluna de ordenação.
+   * @param id O ID da linha.
+   * @return O cursor codificado em Base64 URL-safe.
+   */
+  public static String encode(LocalDateTime timestamp, UUID id) {
+    String raw = timestamp.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodifica um cursor recebido do cliente.
+   *
+   * @param cursor O cursor opaco.
+   * @return A posição correspondente.
+   * @throws BadRequestException se o cursor for inválido.
+   */
+  public static Cursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new BadRequestException("Cursor inválido");
+      }
+      return new Cursor(
+          LocalDateTime.parse(raw.substring(0, separator)),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      // Base64, data ou UUID malformados
+      throw new BadRequestException("Cursor inválido", e);
+    }
+  }
+}
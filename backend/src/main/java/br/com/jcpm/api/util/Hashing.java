@@ -0,0 +1,45 @@
+package br.com.jcpm.api.util;
+
+/**
+ * Funções de hash de 64 bits não criptográficas para estruturas probabilísticas.
+ */
+public final class Hashing {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private Hashing() {}
+
+  /**
+   * Calcula um hash de 64 bits bem distribuído para uma string (FNV-1a seguido da finalização do
+   * MurmurHash3).
+   *
+   * @param value A string.
+   * @return O hash de 64 bits.
+   */
+  public static long hash64(String value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return mix64(hash);
+  }
+
+  /**
+   * Aplica a função de finalização do MurmurHash3 (fmix64), espalhando os bits de entrada por
+   * todo o resultado.
+   *
+   * @param value O valor.
+   * @return O valor misturado.
+   */
+  public static long mix64(long value) {
+    long z = value;
+    z ^= z >>> 33;
+    z *= 0xff51afd7ed558ccdL;
+    z ^= z >>> 33;
+    z *= 0xc4ceb9fe1a85ec53L;
+    z ^= z >>> 33;
+    return z;
+  }
+}
@@ -0,0 +1,159 @@
+package br.com.jcpm.api.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Sketch HyperLogLog para estimar a cardinalidade (número de elementos distintos) de um fluxo com
+ * memória fixa de {@code 2^precision} bytes. Com precisão 12 ocupa 4 KB e tem erro padrão de
+ * aproximadamente 1,6%.
+ *
+ * <p>Sketches de mesma precisão podem ser mesclados sem perda (ex: dias em uma semana). A
+ * serialização compacta os registradores com Deflate, o que reduz bastante sketches esparsos.
+ */
+public final class HyperLogLog {
+
+  private final int precision;
+  private final byte[] registers;
+
+  /**
+   * Cria um sketch vazio.
+   *
+   * @param precision O número de bits de índice (entre 4 e 16).
+   */
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 16) {
+      throw new IllegalArgumentException("Precisão do HyperLogLog deve estar entre 4 e 16");
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Adiciona um elemento já convertido em hash de 64 bits.
+   *
+   * @param hash O hash do elemento.
+   * @return true se algum registrador foi alterado.
+   */
+  public synchronized boolean offerHash(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    long remaining = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Estima o número de elementos distintos adicionados.
+   *
+   * @return A cardinalidade estimada.
+   */
+  public synchronized long cardinality() {
+    double m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += Math.scalb(1.0, -register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double alpha = 0.7213 / (1 + 1.079 / m);
+    double estimate = alpha * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      estimate = m * Math.log(m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Mescla outro sketch neste (união dos conjuntos).
+   *
+   * @param other O sketch a mesclar, com a mesma precisão.
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          "Sketches com precisões diferentes não podem ser mesclados");
+    }
+    byte[] snapshot;
+    synchronized (other) {
+      snapshot = other.registers.clone();
+    }
+    synchronized (this) {
+      for (int i = 0; i < registers.length; i++) {
+        if (snapshot[i] > registers[i]) {
+          registers[i] = snapshot[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * Serializa o sketch em formato compacto: um byte de precisão seguido dos registradores
+   * comprimidos.
+   *
+   * @return Os bytes serializados.
+   */
+  public byte[] toBytes() {
+    byte[] snapshot;
+    synchronized (this) {
+      snapshot = registers.clone();
+    }
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(snapshot);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length / 4 + 16);
+      out.write(precision);
+      byte[] buffer = new byte[1024];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Reconstrói um sketch serializado por {@link #toBytes()}.
+   *
+   * @param bytes Os bytes serializados.
+   * @return O sketch.
+   * @throws IllegalArgumentException se os bytes estiverem corrompidos.
+   */
+  public static HyperLogLog fromBytes(byte[] bytes) {
+    HyperLogLog sketch = new HyperLogLog(bytes[0]);
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes, 1, bytes.length - 1);
+      int length = sketch.registers.length;
+      int read = 0;
+      while (read < length && !inflater.finished()) {
+        int inflated = inflater.inflate(sketch.registers, read, length - read);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += inflated;
+      }
+      if (read != length) {
+        throw new IllegalArgumentException("Sketch HyperLogLog truncado");
+      }
+      return sketch;
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Sketch HyperLogLog corrompido", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
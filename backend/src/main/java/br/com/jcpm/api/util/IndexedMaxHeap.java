@@ -0,0 +1,199 @@
+package br.com.jcpm.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Heap de máximo indexado por chave, com prioridades {@code double}.
+ *
+ * <p>A posição de cada chave é mantida em um mapa, de modo que alterar a prioridade de uma chave
+ * existente custa O(log n), sem remoção e reinserção. As K maiores prioridades são obtidas em O(K
+ * log K) percorrendo a árvore a partir da raiz, sem modificar o heap. Não é seguro para uso
+ * concorrente.
+ *
+ * @param <K> O tipo das chaves.
+ */
+public final class IndexedMaxHeap<K> {
+
+  private Object[] keys = new Object[16];
+  private double[] priorities = new double[16];
+  private final Map<K, Integer> positions = new HashMap<>();
+  private int size;
+
+  /**
+   * Define a prioridade de uma chave, inserindo-a se ainda não estiver no heap.
+   *
+   * @param key A chave.
+   * @param priority A nova prioridade.
+   */
+  public void set(K key, double priority) {
+    Integer position = positions.get(key);
+    if (position == null) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        priorities = Arrays.copyOf(priorities, size * 2);
+      }
+      keys[size] = key;
+      priorities[size] = priority;
+      positions.put(key, size);
+      siftUp(size++);
+      return;
+    }
+    double previous = priorities[position];
+    priorities[position] = priority;
+    if (priority > previous) {
+      siftUp(position);
+    } else {
+      siftDown(position);
+    }
+  }
+
+  /**
+   * Retorna a prioridade de uma chave.
+   *
+   * @param key A chave.
+   * @return A prioridade, ou {@link Double#NaN} se a chave não estiver no heap.
+   */
+  public double priority(K key) {
+    Integer position = positions.get(key);
+    return position == null ? Double.NaN : priorities[position];
+  }
+
+  /**
+   * Remove uma chave.
+   *
+   * @param key A chave.
+   * @return true se a chave estava no heap.
+   */
+  public boolean remove(K key) {
+    Integer position = positions.remove(key);
+    if (position == null) {
+      return false;
+    }
+    int last = --size;
+    if (position != last) {
+      move(last, position);
+      siftUp(position);
+      siftDown(position);
+    }
+    keys[last] = null;
+    return true;
+  }
+
+  /**
+   * Retorna as chaves com as maiores prioridades, em ordem decrescente.
+   *
+   * @param limit O número máximo de chaves.
+   * @return As chaves.
+   */
+  @SuppressWarnings("unchecked")
+  public List<K> top(int limit) {
+    List<K> result = new ArrayList<>(Math.min(limit, size));
+    if (size == 0 || limit <= 0) {
+      return result;
+    }
+    // Fronteira de candidatos: os filhos de cada posição extraída
+    PriorityQueue<Integer> frontier =
+        new PriorityQueue<>((a, b) -> Double.compare(priorities[b], priorities[a]));
+    frontier.add(0);
+    while (!frontier.isEmpty() && result.size() < limit) {
+      int position = frontier.poll();
+      result.add((K) keys[position]);
+      int left = 2 * position + 1;
+      if (left < size) {
+        frontier.add(left);
+      }
+      if (left + 1 < size) {
+        frontier.add(left + 1);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Multiplica todas as prioridades por um fator positivo. A ordem relativa é preservada, então o
+   * heap não precisa ser reorganizado.
+   *
+   * @param factor O fator (maior que zero).
+   */
+  public void scale(double factor) {
+    if (!(factor > 0)) {
+      throw new IllegalArgumentException("O fator deve ser positivo: " + factor);
+    }
+    for (int i = 0; i < size; i++) {
+      priorities[i] *= factor;
+    }
+  }
+
+  /**
+   * Percorre as chaves e prioridades, em ordem arbitrária.
+   *
+   * @param action A ação aplicada a cada par.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(ObjDoubleConsumer<K> action) {
+    for (int i = 0; i < size; i++) {
+      action.accept((K) keys[i], priorities[i]);
+    }
+  }
+
+  /** Retorna o número de chaves. */
+  public int size() {
+    return size;
+  }
+
+  private void siftUp(int position) {
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (priorities[parent] >= priorities[position]) {
+        return;
+      }
+      swap(parent, position);
+      position = parent;
+    }
+  }
+
+  private void siftDown(int position) {
+    while (true) {
+      int largest = position;
+      int left = 2 * position + 1;
+      if (left < size && priorities[left] > priorities[largest]) {
+        largest = left;
+      }
+      if (left + 1 < size && priorities[left + 1] > priorities[largest]) {
+        largest = left + 1;
+      }
+      if (largest == position) {
+        return;
+      }
+      swap(largest, position);
+      position = largest;
+    }
+  }
+
+  private void swap(int a, int b) {
+    Object key = keys[a];
+    double priority = priorities[a];
+    move(b, a);
+    keys[b] = key;
+    priorities[b] = priority;
+    updatePosition(b);
+  }
+
+  /** Copia a entrada da posição {@code from} para {@code to}. */
+  private void move(int from, int to) {
+    keys[to] = keys[from];
+    priorities[to] = priorities[from];
+    updatePosition(to);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void updatePosition(int position) {
+    positions.put((K) keys[position], position);
+  }
+}
@@ -0,0 +1,77 @@
+package br.com.jcpm.api.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com baldes em potências de 2 microssegundos (de 1 µs a ~34 s).
+ *
+ * <p>O registro não bloqueia e usa memória constante; os percentis são aproximados pelo limite
+ * superior do balde em que caem.
+ */
+public final class LatencyHistogram {
+
+  private static final int BUCKETS = 26;
+
+  private final LongAdder[] counts = new LongAdder[BUCKETS];
+  private final LongAdder totalMicros = new LongAdder();
+  private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Registra uma medição.
+   *
+   * @param nanos A duração em nanossegundos.
+   */
+  public void record(long nanos) {
+    long micros = Math.max(0, nanos / 1000);
+    int bucket = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(micros - 1);
+    counts[Math.min(bucket, BUCKETS - 1)].increment();
+    totalMicros.add(micros);
+    maxMicros.accumulate(micros);
+  }
+
+  /**
+   * Retorna um retrato do histograma, pronto para exposição como métrica.
+   *
+   * @return Um mapa com contagem, média, percentis e máximo em milissegundos.
+   */
+  public Map<String, Object> snapshot() {
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts[i].sum();
+      total += snapshot[i];
+    }
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("count", total);
+    stats.put("meanMillis", total == 0 ? 0.0 : totalMicros.sum() / 1000.0 / total);
+    stats.put("p50Millis", percentile(snapshot, total, 0.50));
+    stats.put("p90Millis", percentile(snapshot, total, 0.90));
+    stats.put("p99Millis", percentile(snapshot, total, 0.99));
+    stats.put("maxMillis", maxMicros.get() / 1000.0);
+    return stats;
+  }
+
+  private static double percentile(long[] snapshot, long total, double quantile) {
+    if (total == 0) {
+      return 0.0;
+    }
+    long rank = (long) Math.ceil(quantile * total);
+    long cumulative = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      cumulative += snapshot[i];
+      if (cumulative >= rank) {
+        return (1L << i) / 1000.0;
+      }
+    }
+    return (1L << (BUCKETS - 1)) / 1000.0;
+  }
+}
@@ -0,0 +1,89 @@
+package br.com.jcpm.api.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores por minuto em um buffer circular de tamanho fixo.
+ *
+ * <p>Cada posição guarda, em um único {@code long}, o minuto a que pertence (32 bits altos,
+ * minutos desde a época Unix) e a contagem (32 bits baixos). Um incremento é um CAS na posição do
+ * minuto; ao encontrar um minuto antigo, a posição é reiniciada para o minuto atual. Nenhum objeto
+ * é alocado na escrita, e leituras concorrentes nunca veem contagens de minutos diferentes
+ * misturadas.
+ */
+public final class MinuteRingBuffer {
+
+  private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+  private final AtomicLongArray slots;
+  private volatile long lastMinute;
+
+  /**
+   * Cria um buffer.
+   *
+   * @param minutes O número de minutos retidos.
+   */
+  public MinuteRingBuffer(int minutes) {
+    if (minutes <= 0) {
+      throw new IllegalArgumentException("O buffer deve reter ao menos um minuto: " + minutes);
+    }
+    this.slots = new AtomicLongArray(minutes);
+  }
+
+  /**
+   * Soma um evento ao minuto informado. Eventos de minutos que já saíram do buffer são ignorados.
+   *
+   * @param minute O minuto (desde a época Unix).
+   */
+  public void increment(long minute) {
+    int index = (int) Math.floorMod(minute, (long) slots.length());
+    while (true) {
+      long current = slots.get(index);
+      long slotMinute = current >>> 32;
+      long next;
+      if (slotMinute == minute) {
+        if ((current & COUNT_MASK) == COUNT_MASK) {
+          return;
+        }
+        next = current + 1;
+      } else if (slotMinute < minute) {
+        next = (minute << 32) | 1;
+      } else {
+        return;
+      }
+      if (slots.compareAndSet(index, current, next)) {
+        break;
+      }
+    }
+    if (minute > lastMinute) {
+      lastMinute = minute;
+    }
+  }
+
+  /**
+   * Copia as contagens de um intervalo de minutos terminado em {@code endMinute}, do mais antigo
+   * para o mais recente. Minutos sem eventos, ou fora da retenção, valem zero.
+   *
+   * @param endMinute O último minuto do intervalo (inclusive).
+   * @param target O vetor de destino; seu tamanho define o número de minutos.
+   */
+  public void copyTo(long endMinute, long[] target) {
+    long startMinute = endMinute - target.length + 1;
+    for (int i = 0; i < target.length; i++) {
+      long minute = startMinute + i;
+      long slot = slots.get((int) Math.floorMod(minute, (long) slots.length()));
+      target[i] =
+          endMinute - minute < slots.length() && slot >>> 32 == minute ? slot & COUNT_MASK : 0;
+    }
+  }
+
+  /** Retorna o minuto do evento mais recente, ou 0 se nunca houve eventos. */
+  public long lastMinute() {
+    return lastMinute;
+  }
+
+  /** Retorna o número de minutos retidos. */
+  public int capacity() {
+    return slots.length();
+  }
+}
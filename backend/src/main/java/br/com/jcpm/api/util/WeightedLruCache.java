@@ -0,0 +1,186 @@
+package br.com.jcpm.api.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache LRU em memória limitado simultaneamente por número de entradas e por peso total.
+ *
+ * <p>Cada entrada informa seu peso ao ser inserida (ex: tamanho do conteúdo). Quando qualquer um
+ * dos limites é excedido, as entradas menos usadas recentemente são descartadas. Os contadores de
+ * acertos, falhas e despejos podem ser lidos sem bloqueio.
+ *
+ * @param <K> O tipo da chave.
+ * @param <V> O tipo do valor.
+ */
+public class WeightedLruCache<K, V> {
+
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final int maxEntries;
+  private final long maxWeight;
+  private final BiConsumer<K, V> removalListener;
+
+  private long totalWeight;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private record Entry<V>(V value, long weight) {}
+
+  public WeightedLruCache(int maxEntries, long maxWeight) {
+    this(maxEntries, maxWeight, (key, value) -> {});
+  }
+
+  /**
+   * Cria o cache.
+   *
+   * @param maxEntries O número máximo de entradas.
+   * @param maxWeight O peso total máximo.
+   * @param removalListener Chamado (sob o bloqueio do cache) quando uma entrada é despejada ou
+   *     invalidada.
+   */
+  public WeightedLruCache(int maxEntries, long maxWeight, BiConsumer<K, V> removalListener) {
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+    this.removalListener = removalListener;
+  }
+
+  /**
+   * Busca um valor, atualizando sua posição na ordem LRU.
+   *
+   * @param key A chave.
+   * @return O valor, ou null se ausente.
+   */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value();
+  }
+
+  /**
+   * Insere ou substitui um valor. Valores mais pesados que o limite total não são armazenados.
+   *
+   * @param key A chave.
+   * @param value O valor.
+   * @param weight O peso da entrada.
+   */
+  public synchronized void put(K key, V value, long weight) {
+    Entry<V> previous = entries.remove(key);
+    if (previous != null) {
+      totalWeight -= previous.weight();
+    }
+    if (maxEntries <= 0 || weight > maxWeight) {
+      return;
+    }
+    entries.put(key, new Entry<>(value, weight));
+    totalWeight += weight;
+    evictExcess();
+  }
+
+  /**
+   * Atualiza o peso de uma entrada alterada no lugar. Ao contrário de {@link #put}, não faz nada se
+   * a chave foi despejada, invalidada ou associada a outro valor desde a leitura.
+   *
+   * @param key A chave.
+   * @param value O valor lido do cache.
+   * @param weight O novo peso da entrada.
+   * @return true se a entrada ainda estava no cache e teve o peso atualizado.
+   */
+  public synchronized boolean reweigh(K key, V value, long weight) {
+    Entry<V> current = entries.get(key);
+    if (current == null || current.value() != value) {
+      return false;
+    }
+    if (weight > maxWeight) {
+      invalidate(key);
+      return false;
+    }
+    entries.put(key, new Entry<>(value, weight));
+    totalWeight += weight - current.weight();
+    evictExcess();
+    return true;
+  }
+
+  /** Despeja as entradas menos usadas até que os dois limites sejam respeitados. */
+  private void evictExcess() {
+    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while ((entries.size() > maxEntries || totalWeight > maxWeight) && eldest.hasNext()) {
+      Map.Entry<K, Entry<V>> evicted = eldest.next();
+      eldest.remove();
+      totalWeight -= evicted.getValue().weight();
+      evictions.increment();
+      removalListener.accept(evicted.getKey(), evicted.getValue().value());
+    }
+  }
+
+  /**
+   * Remove uma entrada do cache.
+   *
+   * @param key A chave.
+   * @return O valor removido, ou null se ausente.
+   */
+  public synchronized V invalidate(K key) {
+    Entry<V> removed = entries.remove(key);
+    if (removed == null) {
+      return null;
+    }
+    totalWeight -= removed.weight();
+    removalListener.accept(key, removed.value());
+    return removed.value();
+  }
+
+  /** Remove todas as entradas do cache. */
+  public synchronized void clear() {
+    entries.forEach((key, entry) -> removalListener.accept(key, entry.value()));
+    entries.clear();
+    totalWeight = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long weight() {
+    return totalWeight;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Retorna um retrato das estatísticas do cache, pronto para exposição como métrica.
+   *
+   * @return Um mapa com tamanho, peso, acertos, falhas, despejos e taxa de acerto.
+   */
+  public Map<String, Object> stats() {
+    long hitCount = hitCount();
+    long requests = hitCount + missCount();
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", size());
+    stats.put("maxEntries", maxEntries);
+    stats.put("weight", weight());
+    stats.put("maxWeight", maxWeight);
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount());
+    stats.put("evictions", evictionCount());
+    stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+    return stats;
+  }
+}
@@ -0,0 +1,7 @@
+-- V10__Add_User_Listing_Indexes.sql
+
+-- Índices para a listagem administrativa paginada por (registration_date, id) e para os filtros
+-- por perfil e status
+CREATE INDEX idx_users_registration ON users (registration_date, id);
+CREATE INDEX idx_users_type_registration ON users (user_type, registration_date, id);
+CREATE INDEX idx_users_active_registration ON users (active, registration_date, id);
@@ -0,0 +1,5 @@
+-- V11__Add_Follows_Reverse_Index.sql
+
+-- A chave primária (follower_id, followed_id) atende à lista de seguidos; este índice atende à
+-- lista de seguidores de um usuário em ordem de ID
+CREATE INDEX idx_follows_followed_follower ON follows (followed_id, follower_id);
@@ -0,0 +1,12 @@
+-- V12__Create_User_Timelines.sql
+
+-- Timeline personalizada de cada usuário (notícias dos autores seguidos), em formato binário
+CREATE TABLE user_timelines (
+    user_id CHAR(36) NOT NULL PRIMARY KEY,
+    entries MEDIUMBLOB NOT NULL,
+    updated_at DATETIME,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Índice para a leitura das notícias de um conjunto de autores (fan-out na leitura)
+CREATE INDEX idx_noticias_author_status_pubdate ON noticias (autor_id, status, publication_date, id);
@@ -0,0 +1,4 @@
+-- V13__Add_Comments_Keyset_Index.sql
+
+-- Índice para a paginação por keyset dos comentários de uma notícia, por (created_at, id)
+CREATE INDEX idx_comments_news_created ON comments (news_id, created_at, id);
@@ -0,0 +1,10 @@
+-- V14__Create_Trending_Scores.sql
+
+-- Retrato periódico das pontuações de "em alta" (decaimento exponencial), para que o ranking
+-- sobreviva a reinicializações. score é o valor já decaído no instante scored_at.
+CREATE TABLE trending_scores (
+    news_id CHAR(36) NOT NULL PRIMARY KEY,
+    score DOUBLE NOT NULL,
+    scored_at DATETIME NOT NULL,
+    FOREIGN KEY (news_id) REFERENCES noticias(id) ON DELETE CASCADE
+);
@@ -0,0 +1,11 @@
+-- V15__Create_Feed_Versions.sql
+
+-- Versão do feed público, incrementada a cada escrita de notícia. Substitui o cálculo agregado
+-- (MAX/COUNT sobre as notícias publicadas) na validação condicional do feed.
+CREATE TABLE feed_versions (
+    feed_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+INSERT INTO feed_versions (feed_name, version, updated_at) VALUES ('public', 1, NOW());
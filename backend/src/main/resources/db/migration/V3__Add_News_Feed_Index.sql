@@ -0,0 +1,4 @@
+-- V3__Add_News_Feed_Index.sql
+
+-- Índice de cobertura para a paginação por keyset do feed público (status, publication_date, id)
+CREATE INDEX idx_noticias_status_pubdate ON noticias (status, publication_date, id);
@@ -0,0 +1,11 @@
+-- V5__Create_News_Counters.sql
+
+-- Contadores de engajamento desnormalizados por notícia (checkpoint dos contadores em memória)
+CREATE TABLE news_counters (
+    news_id CHAR(36) NOT NULL PRIMARY KEY,
+    like_count BIGINT NOT NULL DEFAULT 0,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    view_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME,
+    FOREIGN KEY (news_id) REFERENCES noticias(id) ON DELETE CASCADE
+);
@@ -0,0 +1,6 @@
+-- V6__Add_News_Counters_Indexes.sql
+
+-- Índices para os rankings top-K do dashboard administrativo
+CREATE INDEX idx_news_counters_views ON news_counters (view_count);
+CREATE INDEX idx_news_counters_likes ON news_counters (like_count);
+CREATE INDEX idx_news_counters_comments ON news_counters (comment_count);
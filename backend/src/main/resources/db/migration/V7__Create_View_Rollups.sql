@@ -0,0 +1,21 @@
+-- V7__Create_View_Rollups.sql
+
+-- Agregados de visualizações por notícia, dia e hora (mantidos pelo job de compactação)
+CREATE TABLE view_rollups (
+    news_id CHAR(36) NOT NULL,
+    view_day DATE NOT NULL,
+    view_hour INT NOT NULL,
+    view_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (news_id, view_day, view_hour),
+    FOREIGN KEY (news_id) REFERENCES noticias(id) ON DELETE CASCADE
+);
+
+-- Marca d'água de cada job de compactação
+CREATE TABLE rollup_watermarks (
+    job_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    high_water DATETIME NOT NULL
+);
+
+-- Índices para a varredura por intervalo do job e para a cauda não compactada por notícia
+CREATE INDEX idx_views_viewed_at ON views (viewed_at);
+CREATE INDEX idx_views_news_viewed_at ON views (news_id, viewed_at);
@@ -0,0 +1,12 @@
+-- V8__Create_Reader_Sketches.sql
+
+-- Sketches HyperLogLog de leitores distintos por notícia e dia (registradores comprimidos).
+-- O dia 1970-01-01 guarda o sketch acumulado de todo o período.
+CREATE TABLE reader_sketches (
+    news_id CHAR(36) NOT NULL,
+    sketch_day DATE NOT NULL,
+    registers BLOB NOT NULL,
+    updated_at DATETIME,
+    PRIMARY KEY (news_id, sketch_day),
+    FOREIGN KEY (news_id) REFERENCES noticias(id) ON DELETE CASCADE
+);
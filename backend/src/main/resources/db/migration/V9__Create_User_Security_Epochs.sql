@@ -0,0 +1,12 @@
+-- V9__Create_User_Security_Epochs.sql
+
+-- Época de segurança por usuário para revogação de tokens no modo de autenticação sem estado.
+-- Sem chave estrangeira: a época precisa sobreviver à exclusão do usuário.
+CREATE TABLE user_security_epochs (
+    user_id CHAR(36) NOT NULL PRIMARY KEY,
+    epoch BIGINT NOT NULL,
+    updated_at DATETIME(3) NOT NULL
+);
+
+-- Índice para a atualização incremental feita por cada instância
+CREATE INDEX idx_user_security_epochs_updated_at ON user_security_epochs (updated_at);
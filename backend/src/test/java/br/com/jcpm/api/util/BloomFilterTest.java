@@ -0,0 +1,95 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  private static final int INSERTIONS = 100_000;
+
+  @Test
+  void sizesFilterForTargetRate() {
+    BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+    // 1%: ~9,59 bits e 7 funções de hash por elemento
+    assertTrue(filter.getBitCount() >= 958_506);
+    assertEquals(0, filter.getBitCount() % 64);
+    assertEquals(7, filter.getHashFunctions());
+    assertEquals(filter.getBitCount() / 8, filter.sizeInBytes());
+  }
+
+  @Test
+  void hasNoFalseNegatives() {
+    BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+    for (int i = 0; i < INSERTIONS; i++) {
+      filter.put(Hashing.mix64(i));
+    }
+    for (int i = 0; i < INSERTIONS; i++) {
+      assertTrue(filter.mightContain(Hashing.mix64(i)));
+    }
+  }
+
+  @Test
+  void falsePositiveRateStaysNearTarget() {
+    BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+    for (int i = 0; i < INSERTIONS; i++) {
+      filter.put(Hashing.mix64(i));
+    }
+    int falsePositives = 0;
+    for (int i = INSERTIONS; i < 2 * INSERTIONS; i++) {
+      if (filter.mightContain(Hashing.mix64(i))) {
+        falsePositives++;
+      }
+    }
+    double measured = (double) falsePositives / INSERTIONS;
+    assertTrue(measured < 0.015, "taxa medida " + measured);
+    double expected = filter.expectedFalsePositiveRate();
+    assertTrue(expected > 0.005 && expected < 0.015, "taxa estimada " + expected);
+  }
+
+  @Test
+  void putReportsOnlyNewElements() {
+    BloomFilter filter = new BloomFilter(1_000, 0.01);
+    assertFalse(filter.mightContain(Hashing.hash64("a")));
+    assertTrue(filter.put(Hashing.hash64("a")));
+    assertFalse(filter.put(Hashing.hash64("a")));
+    assertTrue(filter.mightContain(Hashing.hash64("a")));
+    assertEquals(0.0, new BloomFilter(1_000, 0.01).expectedFalsePositiveRate());
+  }
+
+  @Test
+  void concurrentPutsAreNotLost() throws InterruptedException {
+    BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+    int threads = 4;
+    List<Thread> writers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      writers.add(
+          new Thread(
+              () -> {
+                for (int i = offset; i < INSERTIONS; i += threads) {
+                  filter.put(Hashing.mix64(i));
+                }
+              }));
+    }
+    writers.forEach(Thread::start);
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    for (int i = 0; i < INSERTIONS; i++) {
+      assertTrue(filter.mightContain(Hashing.mix64(i)));
+    }
+  }
+
+  @Test
+  void rejectsInvalidSizing() {
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 0));
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 1));
+  }
+}
@@ -0,0 +1,151 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class CompactBitmapTest {
+
+  @Test
+  void crossesArrayBitmapBoundaryBothWays() {
+    CompactBitmap bitmap = new CompactBitmap();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int value = 0; value < 4096 * 2; value += 2) {
+      assertTrue(bitmap.add(value));
+      expected.add(value);
+    }
+    // 4096 valores: ainda um vetor; o próximo converte a partição em mapa de bits
+    assertTrue(bitmap.add(1));
+    expected.add(1);
+    assertFalse(bitmap.add(1));
+    assertSameValues(expected, bitmap);
+
+    // De volta a 4096 valores: a partição volta a ser um vetor
+    assertTrue(bitmap.remove(1));
+    expected.remove(1);
+    assertFalse(bitmap.remove(1));
+    assertSameValues(expected, bitmap);
+    assertFalse(bitmap.contains(1));
+    assertTrue(bitmap.add(3));
+    expected.add(3);
+    assertSameValues(expected, bitmap);
+  }
+
+  @Test
+  void randomOperationsMatchTreeSet() {
+    Random random = new Random(42);
+    CompactBitmap bitmap = new CompactBitmap();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int i = 0; i < 200_000; i++) {
+      // Partição 0 densa, 1 esparsa, 5 próxima do limite entre vetor e mapa de bits
+      int partition = new int[] {0, 0, 1, 5}[random.nextInt(4)];
+      int range = partition == 0 ? 20_000 : partition == 1 ? 65_536 : 9_000;
+      int value = (partition << 16) | random.nextInt(range);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(value), bitmap.remove(value));
+      } else {
+        assertEquals(expected.add(value), bitmap.add(value));
+      }
+      if (i % 20_000 == 0) {
+        assertSameValues(expected, bitmap);
+      }
+    }
+    assertSameValues(expected, bitmap);
+    for (int i = 0; i < 10_000; i++) {
+      int value = random.nextInt(6 << 16);
+      assertEquals(expected.contains(value), bitmap.contains(value));
+    }
+  }
+
+  @Test
+  void andMatchesSetIntersectionForMixedContainers() {
+    Random random = new Random(7);
+    CompactBitmap left = new CompactBitmap();
+    CompactBitmap right = new CompactBitmap();
+    TreeSet<Integer> leftValues = new TreeSet<>();
+    TreeSet<Integer> rightValues = new TreeSet<>();
+    // Partição 0: mapa de bits x vetor; 1: vetor x mapa de bits; 2: mapa de bits x mapa de bits;
+    // 3: vetor x vetor; 4 e 6: só de um lado
+    fill(random, left, leftValues, 0, 30_000);
+    fill(random, right, rightValues, 0, 500);
+    fill(random, left, leftValues, 1, 800);
+    fill(random, right, rightValues, 1, 40_000);
+    fill(random, left, leftValues, 2, 20_000);
+    fill(random, right, rightValues, 2, 20_000);
+    fill(random, left, leftValues, 3, 1_000);
+    fill(random, right, rightValues, 3, 3_000);
+    fill(random, left, leftValues, 4, 100);
+    fill(random, right, rightValues, 6, 100);
+
+    TreeSet<Integer> expected = new TreeSet<>(leftValues);
+    expected.retainAll(rightValues);
+    assertSameValues(expected, left.and(right));
+    assertSameValues(expected, right.and(left));
+    // Os operandos não são alterados
+    assertSameValues(leftValues, left);
+    assertSameValues(rightValues, right);
+  }
+
+  @Test
+  void andOfDenseBitmapsWithSmallOverlapIsCompact() {
+    CompactBitmap evens = new CompactBitmap();
+    CompactBitmap odds = new CompactBitmap();
+    for (int value = 0; value < 20_000; value++) {
+      (value % 2 == 0 ? evens : odds).add(value);
+    }
+    evens.add(19_999);
+    CompactBitmap result = evens.and(odds);
+    assertSameValues(new TreeSet<>(List.of(19_999)), result);
+    assertTrue(result.sizeInBytes() < 1024);
+  }
+
+  @Test
+  void removingLastValueDropsPartition() {
+    CompactBitmap bitmap = new CompactBitmap();
+    bitmap.add(70_000);
+    bitmap.add(5);
+    assertTrue(bitmap.remove(70_000));
+    assertTrue(bitmap.remove(5));
+    assertTrue(bitmap.isEmpty());
+    assertEquals(0, bitmap.cardinality());
+  }
+
+  @Test
+  void rejectsNegativeValues() {
+    CompactBitmap bitmap = new CompactBitmap();
+    assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    assertFalse(bitmap.remove(-1));
+    assertFalse(bitmap.contains(-1));
+  }
+
+  private static void fill(
+      Random random, CompactBitmap bitmap, TreeSet<Integer> values, int partition, int count) {
+    int added = 0;
+    while (added < count) {
+      int value = (partition << 16) | random.nextInt(65_536);
+      bitmap.add(value);
+      if (values.add(value)) {
+        added++;
+      }
+    }
+  }
+
+  private static void assertSameValues(TreeSet<Integer> expected, CompactBitmap bitmap) {
+    List<Integer> actual = new ArrayList<>();
+    bitmap.forEach(actual::add);
+    // forEach percorre em ordem crescente, como a iteração do TreeSet
+    assertEquals(new ArrayList<>(expected), actual);
+    assertEquals(expected.size(), bitmap.cardinality());
+    assertEquals(expected.isEmpty(), bitmap.isEmpty());
+    for (int value : expected) {
+      assertTrue(bitmap.contains(value));
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+  @Test
+  void estimatesCardinalityWithinErrorBound() {
+    // Precisão 12: erro padrão ~1,6%; 5% fica acima de três desvios
+    for (int count : new int[] {10, 1_000, 10_000, 100_000, 1_000_000}) {
+      HyperLogLog sketch = new HyperLogLog(12);
+      for (int i = 0; i < count; i++) {
+        sketch.offerHash(Hashing.hash64("leitor-" + i));
+      }
+      double error = Math.abs(sketch.cardinality() - count) / (double) count;
+      assertTrue(error < 0.05, count + " elementos, erro " + error);
+    }
+  }
+
+  @Test
+  void emptySketchEstimatesZero() {
+    assertEquals(0, new HyperLogLog(12).cardinality());
+  }
+
+  @Test
+  void repeatedElementsDoNotChangeEstimate() {
+    HyperLogLog sketch = new HyperLogLog(12);
+    for (int i = 0; i < 5_000; i++) {
+      sketch.offerHash(Hashing.mix64(i));
+    }
+    long estimate = sketch.cardinality();
+    for (int i = 0; i < 5_000; i++) {
+      assertFalse(sketch.offerHash(Hashing.mix64(i)));
+    }
+    assertEquals(estimate, sketch.cardinality());
+  }
+
+  @Test
+  void mergeEqualsSketchOfUnion() {
+    HyperLogLog first = new HyperLogLog(12);
+    HyperLogLog second = new HyperLogLog(12);
+    HyperLogLog union = new HyperLogLog(12);
+    for (int i = 0; i < 30_000; i++) {
+      long hash = Hashing.mix64(i);
+      (i < 20_000 ? first : second).offerHash(hash);
+      // Intervalos sobrepostos: [0, 20000) e [10000, 30000)
+      if (i >= 10_000 && i < 20_000) {
+        second.offerHash(hash);
+      }
+      union.offerHash(hash);
+    }
+    first.merge(second);
+    assertArrayEquals(union.toBytes(), first.toBytes());
+    assertEquals(union.cardinality(), first.cardinality());
+  }
+
+  @Test
+  void mergeRejectsDifferentPrecision() {
+    HyperLogLog sketch = new HyperLogLog(12);
+    assertThrows(IllegalArgumentException.class, () -> sketch.merge(new HyperLogLog(10)));
+  }
+
+  @Test
+  void bytesRoundTrip() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    for (int i = 0; i < 50_000; i++) {
+      sketch.offerHash(Hashing.mix64(i));
+    }
+    byte[] bytes = sketch.toBytes();
+    HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+    assertEquals(14, restored.getPrecision());
+    assertEquals(sketch.cardinality(), restored.cardinality());
+    assertArrayEquals(bytes, restored.toBytes());
+  }
+
+  @Test
+  void emptySketchSerializesCompactly() {
+    byte[] bytes = new HyperLogLog(12).toBytes();
+    assertTrue(bytes.length < 64, "tamanho " + bytes.length);
+    assertEquals(0, HyperLogLog.fromBytes(bytes).cardinality());
+  }
+
+  @Test
+  void rejectsTruncatedOrCorruptedBytes() {
+    HyperLogLog sketch = new HyperLogLog(12);
+    for (int i = 0; i < 50_000; i++) {
+      sketch.offerHash(Hashing.mix64(i));
+    }
+    byte[] bytes = sketch.toBytes();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> HyperLogLog.fromBytes(Arrays.copyOf(bytes, bytes.length / 2)));
+    byte[] corrupted = bytes.clone();
+    Arrays.fill(corrupted, 1, corrupted.length, (byte) 0xFF);
+    assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(corrupted));
+  }
+
+  @Test
+  void rejectsPrecisionOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+  }
+}
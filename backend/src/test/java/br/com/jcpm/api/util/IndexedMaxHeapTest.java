@@ -0,0 +1,101 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IndexedMaxHeapTest {
+
+  @Test
+  void randomOperationsMatchSortedMap() {
+    Random random = new Random(11);
+    IndexedMaxHeap<Integer> heap = new IndexedMaxHeap<>();
+    Map<Integer, Double> expected = new HashMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      int key = random.nextInt(2_000);
+      int operation = random.nextInt(10);
+      if (operation < 3) {
+        assertEquals(expected.remove(key) != null, heap.remove(key));
+      } else {
+        // Aumentos e reduções de chaves existentes exercitam siftUp e siftDown
+        double priority = random.nextDouble() * 1_000;
+        heap.set(key, priority);
+        expected.put(key, priority);
+      }
+      if (i % 10_000 == 0) {
+        assertSameEntries(expected, heap);
+      }
+    }
+    assertSameEntries(expected, heap);
+  }
+
+  @Test
+  void removeFromMiddleRestoresOrderBothWays() {
+    IndexedMaxHeap<String> heap = new IndexedMaxHeap<>();
+    // Posições: a=0; b=1, c=2; d=3, e=4, f=5, g=6
+    heap.set("a", 100);
+    heap.set("b", 50);
+    heap.set("c", 90);
+    heap.set("d", 40);
+    heap.set("e", 45);
+    heap.set("f", 80);
+    heap.set("g", 85);
+    // O último (g, 85) ocupa a posição de d, abaixo de b (50): precisa subir
+    assertTrue(heap.remove("d"));
+    assertEquals(List.of("a", "c", "g", "f", "b", "e"), heap.top(10));
+    // O último ocupa a raiz e precisa descer
+    assertTrue(heap.remove("a"));
+    assertEquals(List.of("c", "g", "f", "b", "e"), heap.top(10));
+    assertFalse(heap.remove("a"));
+    assertTrue(Double.isNaN(heap.priority("a")));
+    assertEquals(5, heap.size());
+  }
+
+  @Test
+  void topStopsAtLimit() {
+    IndexedMaxHeap<Integer> heap = new IndexedMaxHeap<>();
+    for (int i = 0; i < 1_000; i++) {
+      heap.set(i, i);
+    }
+    assertEquals(List.of(999, 998, 997), heap.top(3));
+    assertEquals(List.of(), heap.top(0));
+    assertEquals(List.of(), new IndexedMaxHeap<Integer>().top(5));
+  }
+
+  @Test
+  void scalePreservesOrder() {
+    IndexedMaxHeap<Integer> heap = new IndexedMaxHeap<>();
+    for (int i = 0; i < 100; i++) {
+      heap.set(i, (i * 37) % 100);
+    }
+    List<Integer> before = heap.top(100);
+    heap.scale(0.5);
+    assertEquals(before, heap.top(100));
+    assertEquals(18.5, heap.priority(1));
+    assertThrows(IllegalArgumentException.class, () -> heap.scale(0));
+    assertThrows(IllegalArgumentException.class, () -> heap.scale(Double.NaN));
+  }
+
+  private static void assertSameEntries(
+      Map<Integer, Double> expected, IndexedMaxHeap<Integer> heap) {
+    assertEquals(expected.size(), heap.size());
+    List<Integer> ranked =
+        expected.entrySet().stream()
+            .sorted(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder()))
+            .map(Map.Entry::getKey)
+            .toList();
+    assertEquals(ranked, heap.top(expected.size()));
+    assertEquals(ranked.subList(0, Math.min(10, ranked.size())), heap.top(10));
+    Map<Integer, Double> visited = new HashMap<>();
+    heap.forEach(visited::put);
+    assertEquals(expected, visited);
+  }
+}
@@ -0,0 +1,105 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  private static final long NANOS_PER_MICRO = 1_000;
+
+  @Test
+  void placesValuesInPowerOfTwoBuckets() {
+    // Cada balde cobre (2^(k-1), 2^k] µs e é reportado pelo limite superior
+    assertEquals(0.001, medianOf(0));
+    assertEquals(0.001, medianOf(1));
+    assertEquals(0.002, medianOf(2));
+    assertEquals(0.004, medianOf(3));
+    assertEquals(0.004, medianOf(4));
+    assertEquals(0.008, medianOf(5));
+    for (int k = 2; k < 25; k++) {
+      assertEquals((1L << k) / 1000.0, medianOf(1L << k), "2^" + k);
+      assertEquals((1L << (k + 1)) / 1000.0, medianOf((1L << k) + 1), "2^" + k + "+1");
+    }
+  }
+
+  @Test
+  void truncatesSubMicrosecondAndNegativeDurations() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(999);
+    histogram.record(-5);
+    Map<String, Object> snapshot = histogram.snapshot();
+    assertEquals(2L, snapshot.get("count"));
+    assertEquals(0.001, snapshot.get("p99Millis"));
+    assertEquals(0.0, snapshot.get("maxMillis"));
+  }
+
+  @Test
+  void clampsValuesAboveLastBucket() {
+    double lastBucketMillis = (1L << 25) / 1000.0;
+    assertEquals(lastBucketMillis, medianOf(1L << 25));
+    assertEquals(lastBucketMillis, medianOf((1L << 25) + 1));
+    assertEquals(lastBucketMillis, medianOf(3_600_000_000L));
+    // O máximo continua exato
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(3_600_000_000L * NANOS_PER_MICRO);
+    assertEquals(3_600_000.0, (double) histogram.snapshot().get("maxMillis"));
+  }
+
+  @Test
+  void reportsPercentilesOfKnownDistribution() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    // 1..1000 µs: p50 = 500 µs (balde de 512), p90 = 900 (1024), p99 = 990 (1024)
+    for (long micros = 1; micros <= 1_000; micros++) {
+      histogram.record(micros * NANOS_PER_MICRO);
+    }
+    Map<String, Object> snapshot = histogram.snapshot();
+    assertEquals(1_000L, snapshot.get("count"));
+    assertEquals(0.512, snapshot.get("p50Millis"));
+    assertEquals(1.024, snapshot.get("p90Millis"));
+    assertEquals(1.024, snapshot.get("p99Millis"));
+
+    LatencyHistogram skewed = new LatencyHistogram();
+    // 90 medições de 10 µs, 9 de 100 µs e 1 de 10 ms
+    for (int i = 0; i < 90; i++) {
+      skewed.record(10 * NANOS_PER_MICRO);
+    }
+    for (int i = 0; i < 9; i++) {
+      skewed.record(100 * NANOS_PER_MICRO);
+    }
+    skewed.record(10_000 * NANOS_PER_MICRO);
+    Map<String, Object> tail = skewed.snapshot();
+    assertEquals(0.016, tail.get("p50Millis"));
+    assertEquals(0.016, tail.get("p90Millis"));
+    assertEquals(0.128, tail.get("p99Millis"));
+  }
+
+  @Test
+  void reportsMeanAndMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1_000 * NANOS_PER_MICRO);
+    histogram.record(2_000 * NANOS_PER_MICRO);
+    histogram.record(6_000 * NANOS_PER_MICRO);
+    Map<String, Object> snapshot = histogram.snapshot();
+    assertEquals(3.0, (double) snapshot.get("meanMillis"), 1e-9);
+    assertEquals(6.0, (double) snapshot.get("maxMillis"));
+  }
+
+  @Test
+  void emptySnapshotIsZero() {
+    Map<String, Object> snapshot = new LatencyHistogram().snapshot();
+    assertEquals(0L, snapshot.get("count"));
+    assertEquals(0.0, snapshot.get("meanMillis"));
+    assertEquals(0.0, snapshot.get("p50Millis"));
+    assertEquals(0.0, snapshot.get("p90Millis"));
+    assertEquals(0.0, snapshot.get("p99Millis"));
+    assertEquals(0.0, snapshot.get("maxMillis"));
+  }
+
+  private static double medianOf(long micros) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(micros * NANOS_PER_MICRO);
+    return (double) histogram.snapshot().get("p50Millis");
+  }
+}
@@ -0,0 +1,110 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MinuteRingBufferTest {
+
+  // Minuto arbitrário longe da época, para exercitar os 32 bits altos
+  private static final long BASE = 29_000_000;
+
+  @Test
+  void copiesCountsFromOldestToNewest() {
+    MinuteRingBuffer buffer = new MinuteRingBuffer(60);
+    for (int minute = 0; minute < 5; minute++) {
+      for (int i = 0; i <= minute; i++) {
+        buffer.increment(BASE + minute);
+      }
+    }
+    long[] counts = new long[6];
+    buffer.copyTo(BASE + 5, counts);
+    assertArrayEquals(new long[] {1, 2, 3, 4, 5, 0}, counts);
+    assertEquals(BASE + 4, buffer.lastMinute());
+  }
+
+  @Test
+  void wrapsAroundKeepingOnlyRetainedMinutes() {
+    MinuteRingBuffer buffer = new MinuteRingBuffer(60);
+    long[] expected = new long[150];
+    for (int minute = 0; minute < 150; minute++) {
+      for (int i = 0; i < minute % 7 + 1; i++) {
+        buffer.increment(BASE + minute);
+      }
+      expected[minute] = minute % 7 + 1;
+    }
+
+    long[] retained = new long[60];
+    buffer.copyTo(BASE + 149, retained);
+    long[] tail = new long[60];
+    System.arraycopy(expected, 90, tail, 0, 60);
+    assertArrayEquals(tail, retained);
+
+    // Minutos fora da retenção valem zero, mesmo pedindo mais que a capacidade
+    long[] wide = new long[100];
+    buffer.copyTo(BASE + 149, wide);
+    long[] padded = new long[100];
+    System.arraycopy(expected, 90, padded, 40, 60);
+    assertArrayEquals(padded, wide);
+  }
+
+  @Test
+  void ignoresMinutesOlderThanSlot() {
+    MinuteRingBuffer buffer = new MinuteRingBuffer(60);
+    buffer.increment(BASE + 100);
+    // Mesma posição de BASE + 100, porém mais antigo: já saiu da retenção
+    buffer.increment(BASE + 40);
+    long[] counts = new long[1];
+    buffer.copyTo(BASE + 100, counts);
+    assertArrayEquals(new long[] {1}, counts);
+    buffer.copyTo(BASE + 40, counts);
+    assertArrayEquals(new long[] {0}, counts);
+    assertEquals(BASE + 100, buffer.lastMinute());
+  }
+
+  @Test
+  void reusesSlotForNewerMinute() {
+    MinuteRingBuffer buffer = new MinuteRingBuffer(60);
+    buffer.increment(BASE + 10);
+    buffer.increment(BASE + 10);
+    buffer.increment(BASE + 70);
+    long[] counts = new long[61];
+    buffer.copyTo(BASE + 70, counts);
+    // O minuto 10 saiu da janela e sua posição passou ao minuto 70
+    assertEquals(0, counts[0]);
+    assertEquals(1, counts[60]);
+  }
+
+  @Test
+  void concurrentIncrementsAreNotLost() throws InterruptedException {
+    MinuteRingBuffer buffer = new MinuteRingBuffer(60);
+    List<Thread> writers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      writers.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < 100_000; i++) {
+                  buffer.increment(BASE + i % 3);
+                }
+              }));
+    }
+    writers.forEach(Thread::start);
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    long[] counts = new long[3];
+    buffer.copyTo(BASE + 2, counts);
+    assertEquals(400_000, counts[0] + counts[1] + counts[2]);
+    assertEquals(133_336, counts[0]);
+  }
+
+  @Test
+  void rejectsEmptyCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new MinuteRingBuffer(0));
+    assertEquals(1, new MinuteRingBuffer(1).capacity());
+  }
+}
@@ -0,0 +1,141 @@
+package br.com.jcpm.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WeightedLruCacheTest {
+
+  private final List<String> removed = new ArrayList<>();
+
+  private WeightedLruCache<String, String> cache(int maxEntries, long maxWeight) {
+    return new WeightedLruCache<>(maxEntries, maxWeight, (key, value) -> removed.add(key));
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedOverEntryLimit() {
+    WeightedLruCache<String, String> cache = cache(3, 100);
+    cache.put("a", "A", 1);
+    cache.put("b", "B", 1);
+    cache.put("c", "C", 1);
+    // O acesso torna "a" a mais recente; "b" passa a ser a menos usada
+    assertEquals("A", cache.get("a"));
+    cache.put("d", "D", 1);
+    assertNull(cache.get("b"));
+    assertEquals("A", cache.get("a"));
+    assertEquals(3, cache.size());
+    assertEquals(List.of("b"), removed);
+    assertEquals(1, cache.evictionCount());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedOverWeightLimit() {
+    WeightedLruCache<String, String> cache = cache(100, 10);
+    cache.put("a", "A", 4);
+    cache.put("b", "B", 4);
+    cache.get("a");
+    // 4 + 4 + 6 > 10: despeja "b" (menos usada) e depois nada mais, pois 4 + 6 cabe
+    cache.put("c", "C", 6);
+    assertEquals(List.of("b"), removed);
+    assertEquals(10, cache.weight());
+    cache.put("d", "D", 9);
+    assertEquals(List.of("b", "a", "c"), removed);
+    assertEquals(9, cache.weight());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void rejectsOversizePutAndDropsPreviousValue() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    cache.put("a", "A", 5);
+    cache.put("a", "A2", 11);
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.weight());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void replacingValueAdjustsWeightWithoutNotifyingListener() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    cache.put("a", "A", 5);
+    cache.put("a", "A2", 3);
+    assertEquals("A2", cache.get("a"));
+    assertEquals(3, cache.weight());
+    assertEquals(List.of(), removed);
+  }
+
+  @Test
+  void reweighUpdatesOnlyTheCachedValue() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    String value = new String("A");
+    cache.put("a", value, 2);
+    assertTrue(cache.reweigh("a", value, 5));
+    assertEquals(5, cache.weight());
+
+    // Valor substituído: mesmo conteúdo, outra instância
+    cache.put("a", new String("A"), 2);
+    assertFalse(cache.reweigh("a", value, 7));
+    assertEquals(2, cache.weight());
+
+    // Entrada invalidada: nada é reinserido
+    String current = cache.get("a");
+    cache.invalidate("a");
+    assertFalse(cache.reweigh("a", current, 3));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.weight());
+  }
+
+  @Test
+  void reweighAboveMaxWeightInvalidatesEntry() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    String value = "A";
+    cache.put("a", value, 2);
+    assertFalse(cache.reweigh("a", value, 11));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.weight());
+    assertEquals(List.of("a"), removed);
+  }
+
+  @Test
+  void reweighEvictsOthersWhenEntryGrows() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    String value = "A";
+    cache.put("a", value, 2);
+    cache.put("b", "B", 5);
+    assertTrue(cache.reweigh("a", value, 8));
+    assertEquals(List.of("b"), removed);
+    assertEquals(8, cache.weight());
+  }
+
+  @Test
+  void listenerFiresOnInvalidateAndClear() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    cache.put("a", "A", 1);
+    cache.put("b", "B", 1);
+    cache.put("c", "C", 1);
+    assertEquals("A", cache.invalidate("a"));
+    assertNull(cache.invalidate("a"));
+    assertEquals(List.of("a"), removed);
+    cache.clear();
+    assertEquals(List.of("a", "b", "c"), removed);
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.weight());
+  }
+
+  @Test
+  void countsHitsAndMisses() {
+    WeightedLruCache<String, String> cache = cache(10, 10);
+    cache.put("a", "A", 1);
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+    assertEquals(2, cache.hitCount());
+    assertEquals(1, cache.missCount());
+    assertEquals(2.0 / 3, (double) cache.stats().get("hitRate"), 1e-9);
+  }
+}
@@ -1,7 +1,7 @@
-import React, { useState, useEffect, useContext } from 'react';
+import React, { useState, useEffect, useContext, useRef } from 'react';
 import PropTypes from 'prop-types';
 import { useForm } from 'react-hook-form';
-import { engagementService } from '../../lib/api';
+import { engagementService, subscribeToEngagement } from '../../lib/api';
 import { AuthContext } from '../../features/auth/contexts/AuthContext';
 import { useApi } from '../../hooks/useApi';
 import './CommentSection.css';
@@ -14,6 +14,12 @@ function CommentSection({ newsId }) {
   const { user, isAuthenticated } = useContext(AuthContext);
   const { data: comments, loading, error, request: fetchComments } = useApi(engagementService.getComments);
   const [commentList, setCommentList] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [hasNewComments, setHasNewComments] = useState(false);
+  // Último total recebido e comentários do próprio usuário ainda não refletidos nele
+  const lastCommentCount = useRef(null);
+  const ownChanges = useRef(0);
   const { register, handleSubmit, reset, formState: { isSubmitting } } = useForm();
 
   useEffect(() => {
@@ -22,15 +28,49 @@ function CommentSection({ newsId }) {
     }
   }, [newsId, fetchComments]);
 
+  useEffect(() => {
+    if (!newsId) return undefined;
+    return subscribeToEngagement(newsId, ({ commentCount }) => {
+      const previous = lastCommentCount.current;
+      lastCommentCount.current = commentCount;
+      if (previous === null) return;
+      const delta = commentCount - previous - ownChanges.current;
+      ownChanges.current = 0;
+      if (delta > 0) {
+        setHasNewComments(true);
+      }
+    });
+  }, [newsId]);
+
+  const handleShowNewComments = () => {
+    setHasNewComments(false);
+    fetchComments(newsId);
+  };
+
   useEffect(() => {
     if (comments) {
-      setCommentList(comments);
+      setCommentList(comments.items);
+      setNextCursor(comments.nextCursor);
     }
   }, [comments]);
 
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await engagementService.getComments(newsId, nextCursor);
+      setCommentList(prev => [...prev, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      console.error("Erro ao carregar comentários:", err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const onCommentSubmit = async (data) => {
     try {
       const newComment = await engagementService.addComment(newsId, data.content);
+      ownChanges.current += 1;
       setCommentList(prev => [newComment.data, ...prev]);
       reset();
     } catch (err) {
@@ -43,6 +83,7 @@ function CommentSection({ newsId }) {
     if (!window.confirm("Tem certeza que deseja deletar este comentário?")) return;
     try {
       await engagementService.deleteComment(newsId, commentId);
+      ownChanges.current -= 1;
       setCommentList(prev => prev.filter(c => c.id !== commentId));
     } catch (err) {
       console.error("Erro ao deletar comentário:", err);
@@ -52,7 +93,7 @@ function CommentSection({ newsId }) {
 
   return (
     <div className="comment-section">
-      <h3>Comentários ({commentList.length})</h3>
+      <h3>Comentários</h3>
       {isAuthenticated() ? (
         <form onSubmit={handleSubmit(onCommentSubmit)} className="comment-form">
           <textarea
@@ -71,6 +112,11 @@ function CommentSection({ newsId }) {
         </p>
       )}
       <div className="comment-list">
+        {hasNewComments && (
+          <button onClick={handleShowNewComments} className="new-comments-btn">
+            Novos comentários — clique para ver
+          </button>
+        )}
         {loading && <p>Carregando comentários...</p>}
         {error && <p className="error-message">Não foi possível carregar os comentários.</p>}
         {commentList.map((comment) => (
@@ -88,6 +134,11 @@ function CommentSection({ newsId }) {
             )}
           </div>
         ))}
+        {nextCursor && (
+          <button onClick={handleLoadMore} className="load-more-comments-btn" disabled={loadingMore}>
+            {loadingMore ? "Carregando..." : "Ver mais comentários"}
+          </button>
+        )}
       </div>
     </div>
   );
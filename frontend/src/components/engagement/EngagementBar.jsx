@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useContext } from 'react';
 import { AuthContext } from '../../features/auth/contexts/AuthContext';
-import { engagementService } from '../../lib/api';
+import { engagementService, subscribeToEngagement } from '../../lib/api';
 import './EngagementBar.css';
 
 /**
@@ -28,6 +28,14 @@ function EngagementBar({ newsId }) {
     fetchStats();
   }, [newsId, user]);
 
+  // Totais ao vivo enviados pelo servidor; o estado de curtida do usuário continua local
+  useEffect(() => {
+    if (!newsId) return undefined;
+    return subscribeToEngagement(newsId, ({ likeCount, commentCount }) => {
+      setStats(prev => ({ ...prev, likeCount, commentCount }));
+    });
+  }, [newsId]);
+
   const handleLike = async () => {
     if (!isAuthenticated()) {
       // Idealmente, redirecionaria para o login ou mostraria um modal
@@ -39,7 +47,7 @@ function EngagementBar({ newsId }) {
       setStats(prev => ({
         ...prev,
         likeCount: response.data.likeCount,
-        isLikedByCurrentUser: !prev.isLikedByCurrentUser,
+        isLikedByCurrentUser: response.data.liked,
       }));
     } catch (error) {
       console.error("Erro ao curtir:", error);
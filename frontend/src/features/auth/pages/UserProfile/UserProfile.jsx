@@ -13,6 +13,9 @@ function UserProfile() {
   const { user: currentUser } = useContext(AuthContext);
   const { data: profile, loading, error, request: fetchProfile } = useApi(userService.getPublicProfile);
   const [isFollowing, setIsFollowing] = useState(false);
+  const [publishedNews, setPublishedNews] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     if (username) {
@@ -23,12 +26,31 @@ function UserProfile() {
   useEffect(() => {
       if (profile) {
           setIsFollowing(profile.isFollowedByCurrentUser);
+          setPublishedNews(profile.publishedNews || []);
+          setNextCursor(profile.publishedNewsNextCursor || null);
       }
   }, [profile]);
 
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await userService.getPublishedNews(username, nextCursor);
+      setPublishedNews(current => [...current, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      alert("Não foi possível carregar mais publicações.");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleFollow = async () => {
     try {
-      await userService.followUser(profile.id);
+      if (isFollowing) {
+        await userService.unfollowUser(profile.id);
+      } else {
+        await userService.followUser(profile.id);
+      }
       setIsFollowing(!isFollowing);
       // Atualizar contagem de seguidores localmente para feedback instantâneo
       fetchProfile(username); // Re-fetch para dados atualizados
@@ -51,7 +73,7 @@ function UserProfile() {
           <h2>{profile.name} (@{profile.username})</h2>
           <p className="profile-bio">{profile.biography}</p>
           <div className="profile-stats">
-            <span><strong>{profile.publishedNews?.length || 0}</strong> publicações</span>
+            <span><strong>{profile.publishedNewsCount || 0}</strong> publicações</span>
             <span><strong>{profile.followersCount}</strong> seguidores</span>
             <span><strong>{profile.followingCount}</strong> seguindo</span>
           </div>
@@ -70,8 +92,8 @@ function UserProfile() {
         <main className="profile-content">
           <h3>Publicações</h3>
           <div className="news-grid-profile">
-            {profile.publishedNews.map(news => (
-              <a href={`/noticia/${news.slug}`} key={news.slug} className="news-card-profile">
+            {publishedNews.map(news => (
+              <a href={`/noticia/${news.slug}`} key={news.id} className="news-card-profile">
                 <img src={news.featuredImageUrl} alt={news.title} />
                 <div className="news-card-overlay">
                   <h4>{news.title}</h4>
@@ -79,6 +101,11 @@ function UserProfile() {
               </a>
             ))}
           </div>
+          {nextCursor && (
+            <button onClick={handleLoadMore} className="follow-btn" disabled={loadingMore}>
+              {loadingMore ? 'Carregando...' : 'Carregar mais'}
+            </button>
+          )}
         </main>
       )}
     </div>
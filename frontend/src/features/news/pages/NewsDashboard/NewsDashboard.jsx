@@ -8,6 +8,14 @@ import { jsPDF } from 'jspdf';
 import autoTable from 'jspdf-autotable';
 import './NewsDashboard.css';
 
+// Janelas disponíveis para o gráfico por minuto e intervalo de atualização
+const LIVE_WINDOWS = [
+  { minutes: 60, label: 'Última hora' },
+  { minutes: 360, label: 'Últimas 6 horas' },
+  { minutes: 1440, label: 'Últimas 24 horas' },
+];
+const LIVE_REFRESH_MS = 30000;
+
 /**
  * Página de dashboard para uma notícia específica.
  */
@@ -15,6 +23,8 @@ function NewsDashboard() {
   const { id: newsId } = useParams();
   const { data: dashboardData, loading, error, request: fetchDashboardData } = useApi(dashboardService.getNewsDashboard);
   const [chartData, setChartData] = useState({ labels: [], datasets: [] });
+  const [liveMinutes, setLiveMinutes] = useState(LIVE_WINDOWS[0].minutes);
+  const [liveChartData, setLiveChartData] = useState({ labels: [], datasets: [] });
 
   useEffect(() => {
     if (newsId) {
@@ -39,6 +49,35 @@ function NewsDashboard() {
     }
   }, [dashboardData]);
 
+  useEffect(() => {
+    if (!newsId) return undefined;
+    const fetchLiveTraffic = async () => {
+      try {
+        const response = await dashboardService.getNewsLiveTraffic(newsId, liveMinutes);
+        const from = new Date(response.data.from).getTime();
+        const labels = response.data.viewsPerMinute.map((_, index) =>
+          new Date(from + index * 60000).toLocaleTimeString('pt-BR', { hour: '2-digit', minute: '2-digit' })
+        );
+        setLiveChartData({
+          labels,
+          datasets: [{
+            label: 'Visualizações por Minuto',
+            data: response.data.viewsPerMinute,
+            borderColor: 'rgb(231, 76, 60)',
+            backgroundColor: 'rgba(231, 76, 60, 0.5)',
+            pointRadius: 0,
+            tension: 0.1,
+          }],
+        });
+      } catch (err) {
+        console.error("Erro ao buscar tráfego ao vivo:", err);
+      }
+    };
+    fetchLiveTraffic();
+    const timer = setInterval(fetchLiveTraffic, LIVE_REFRESH_MS);
+    return () => clearInterval(timer);
+  }, [newsId, liveMinutes]);
+
   const handleExportPDF = () => {
     if (!dashboardData) return;
     const doc = new jsPDF();
@@ -94,6 +133,21 @@ function NewsDashboard() {
         <ChartComponent data={chartData} title="Evolução das Visualizações" />
       </div>
 
+      <div className="chart-section">
+        <div className="live-traffic-controls">
+          {LIVE_WINDOWS.map(({ minutes, label }) => (
+            <button
+              key={minutes}
+              onClick={() => setLiveMinutes(minutes)}
+              className={`live-window-btn ${liveMinutes === minutes ? 'active' : ''}`}
+            >
+              {label}
+            </button>
+          ))}
+        </div>
+        <ChartComponent data={liveChartData} title="Tráfego ao Vivo" />
+      </div>
+
       <div className="recent-comments-section">
         <h2>Comentários Recentes</h2>
         <div className="comment-list-dashboard">
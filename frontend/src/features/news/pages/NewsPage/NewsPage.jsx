@@ -18,8 +18,8 @@ function NewsPage() {
         setLoading(true);
         const response = await newsService.getBySlug(slug);
         setNews(response.data);
-        // Registra a visualização assim que a notícia é carregada
-        await engagementService.trackView(response.data.id);
+        // Registra a visualização assim que a notícia é carregada (sem bloquear a página)
+        engagementService.trackView(response.data.id).catch(() => {});
       } catch (err) {
         setError('Notícia não encontrada.');
         console.error('Erro ao buscar notícia:', err);
@@ -43,11 +43,18 @@ export const userService = {
   updateUser: (id, user) => api.put(`/api/users/${id}`, user),
   deleteUser: (id) => api.delete(`/api/users/${id}`),
   getPublicProfile: (username) => api.get(`/api/users/perfil/${username}`),
+  getPublishedNews: (username, cursor, size = 12) => api.get(`/api/users/perfil/${username}/noticias`, { params: { cursor, size } }),
   followUser: (userId) => api.post(`/api/users/${userId}/follow`),
+  unfollowUser: (userId) => api.delete(`/api/users/${userId}/follow`),
+  getFollowers: (userId, cursor, size = 20) => api.get(`/api/users/${userId}/followers`, { params: { cursor, size } }),
+  getFollowing: (userId, cursor, size = 20) => api.get(`/api/users/${userId}/following`, { params: { cursor, size } }),
+  getTimeline: (cursor, size = 20) => api.get('/api/users/me/timeline', { params: { cursor, size } }),
 };
 
 export const newsService = {
   getAll: () => api.get('/api/noticias'),
+  getFeed: (cursor, size = 20) => api.get('/api/noticias/feed', { params: { cursor, size } }),
+  getTrending: (limit = 10) => api.get('/api/noticias/trending', { params: { limit } }),
   getBySlug: (slug) => api.get(`/api/noticias/slug/${slug}`),
   getAllForManagement: () => api.get('/api/noticias/manage'),
   getById: (id) => api.get(`/api/noticias/${id}`),
@@ -58,16 +65,49 @@ export const newsService = {
 
 export const engagementService = {
   trackView: (newsId) => api.post(`/api/news/${newsId}/view`),
-  getComments: (newsId) => api.get(`/api/news/${newsId}/comments`),
+  getComments: (newsId, cursor, size = 20) => api.get(`/api/news/${newsId}/comments`, { params: { cursor, size } }),
   addComment: (newsId, content) => api.post(`/api/news/${newsId}/comments`, { content }),
   deleteComment: (newsId, commentId) => api.delete(`/api/news/${newsId}/comments/${commentId}`),
   toggleLike: (newsId) => api.post(`/api/news/${newsId}/like`),
   getEngagementStats: (newsId) => api.get(`/api/news/${newsId}/engagement-stats`),
+  getEngagementStatsBatch: (newsIds) => api.get('/api/news/engagement-stats', { params: { ids: newsIds.join(',') } }),
+};
+
+// Uma única conexão SSE por notícia, compartilhada pelos componentes inscritos
+const engagementStreams = new Map();
+
+/**
+ * Inscreve-se nas atualizações ao vivo de engajamento de uma notícia.
+ * @param {string} newsId
+ * @param {(totals: { likeCount: number, commentCount: number, viewCount: number }) => void} listener
+ * @returns {() => void} Função que cancela a inscrição.
+ */
+export const subscribeToEngagement = (newsId, listener) => {
+  let stream = engagementStreams.get(newsId);
+  if (!stream) {
+    const source = new EventSource(`/api/news/${newsId}/stream`);
+    stream = { source, listeners: new Set() };
+    source.addEventListener('engagement', (event) => {
+      const totals = JSON.parse(event.data);
+      stream.listeners.forEach((notify) => notify(totals));
+    });
+    engagementStreams.set(newsId, stream);
+  }
+  stream.listeners.add(listener);
+
+  return () => {
+    stream.listeners.delete(listener);
+    if (stream.listeners.size === 0) {
+      stream.source.close();
+      engagementStreams.delete(newsId);
+    }
+  };
 };
 
 export const dashboardService = {
   getAdminStats: () => api.get('/api/dashboard/admin-stats'),
   getNewsDashboard: (newsId) => api.get(`/api/dashboard/news/${newsId}`),
+  getNewsLiveTraffic: (newsId, minutes = 60) => api.get(`/api/dashboard/news/${newsId}/live`, { params: { minutes } }),
 };
 
 export default api;